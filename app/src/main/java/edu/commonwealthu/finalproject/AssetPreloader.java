@@ -0,0 +1,228 @@
+package edu.commonwealthu.finalproject;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+import android.util.Log;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import edu.commonwealthu.finalproject.engine.GameConfig;
+
+/**
+ * Loads the game's assets on background threads so that they are resident
+ * by the time the game screen needs them: the sound effects, the background
+ * music, the background image and the icon and pipe sprites.
+ *
+ * Each {@link Asset} has its own future, completed when that asset is ready.
+ * Sound effects complete when SoundPool reports every sample as loaded and
+ * music when the streaming player has prepared, rather than when their loads
+ * were merely requested. Callers wait on just the assets they need with
+ * {@link #whenReady(Runnable, Asset...)}; the splash screen waits for the
+ * gameplay assets and the start button stays disabled until they are in.
+ *
+ * @author Jacob Leonardo
+ */
+public final class AssetPreloader {
+    /** Independently tracked groups of assets. */
+    public enum Asset {
+        SOUNDS, MUSIC, BACKGROUND, SPRITES
+    }
+
+    /** Assets the game cannot start without; music may join late. */
+    public static final Asset[] GAMEPLAY = {Asset.SOUNDS, Asset.BACKGROUND, Asset.SPRITES};
+
+    private static final int IMAGE_THREADS = 2;
+    private static AssetPreloader instance;
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<Asset, CompletableFuture<Void>> futures = new EnumMap<>(Asset.class);
+    private ExecutorService executor;
+    private SoundManager soundManager;
+    private SoundDispatcher soundDispatcher;
+    private MusicPlayer musicPlayer;
+    private long startNanos;
+
+    /**
+     * @param context Any context; only the application context is kept
+     */
+    private AssetPreloader(Context context) {
+        appContext = context.getApplicationContext();
+        for (Asset asset : Asset.values()) {
+            futures.put(asset, new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * @param context Any context; only the application context is kept
+     * @return The shared preloader
+     */
+    public static synchronized AssetPreloader getInstance(Context context) {
+        if (instance == null) {
+            instance = new AssetPreloader(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Starts loading every asset in the background. Calling this again has no effect.
+     */
+    public synchronized void start() {
+        if (executor != null) return;
+        startNanos = System.nanoTime();
+        executor = Executors.newFixedThreadPool(IMAGE_THREADS, r -> new Thread(r, "AssetPreloader"));
+
+        getSoundManager().setOnLoadedListener(() -> complete(Asset.SOUNDS));
+        getMusicPlayer();
+        executor.execute(() -> run(Asset.BACKGROUND, this::warmUpBackground));
+        executor.execute(() -> run(Asset.SPRITES, this::warmUpSprites));
+        executor.shutdown();
+    }
+
+    /**
+     * Runs a loading task and completes the asset's future with its outcome.
+     *
+     * @param asset Asset being loaded
+     * @param task Work that loads it
+     */
+    private void run(Asset asset, Runnable task) {
+        try {
+            task.run();
+            complete(asset);
+        } catch (RuntimeException e) {
+            futures.get(asset).completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Marks an asset as ready.
+     *
+     * @param asset Asset that finished loading
+     */
+    private void complete(Asset asset) {
+        if (futures.get(asset).complete(null)) {
+            Log.d("AssetPreloader", asset + " ready in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+        }
+    }
+
+    /**
+     * Decodes the background at the display size.
+     */
+    private void warmUpBackground() {
+        Resources res = appContext.getResources();
+        DisplayMetrics metrics = res.getDisplayMetrics();
+        BackgroundCache.preload(res, metrics.widthPixels, metrics.heightPixels);
+    }
+
+    /**
+     * Rasterizes the icon and pipe sprites at the sizes the game surface will
+     * ask for and builds their collision masks, which reading a display-height
+     * pipe's pixels makes too slow for the UI thread.
+     */
+    private void warmUpSprites() {
+        Resources res = appContext.getResources();
+        DisplayMetrics metrics = res.getDisplayMetrics();
+        GameConfig defaults = new GameConfig().scale(metrics.density); // as GameSurfaceView sizes them
+
+        SpriteCache sprites = SpriteCache.getInstance();
+        int iconSize = defaults.getIconSize();
+        // Building a mask rasterizes its sprite first.
+        sprites.getMask(res, R.drawable.game_icon, iconSize, iconSize, false);
+        sprites.getMask(res, R.drawable.bottom_pipe, defaults.getPipeWidth(), metrics.heightPixels, false);
+        sprites.getMask(res, R.drawable.bottom_pipe, defaults.getPipeWidth(), metrics.heightPixels, true);
+    }
+
+    /**
+     * @param asset Asset to track
+     * @return Future completed when the asset is ready, or exceptionally if it failed to load
+     */
+    public CompletableFuture<Void> getFuture(Asset asset) {
+        return futures.get(asset);
+    }
+
+    /**
+     * @param asset Asset to check
+     * @return Whether the asset has finished loading successfully
+     */
+    public boolean isReady(Asset asset) {
+        CompletableFuture<Void> future = futures.get(asset);
+        return future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    /** @return Whether every asset has finished loading successfully */
+    public boolean isReady() {
+        for (Asset asset : Asset.values()) {
+            if (!isReady(asset)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Runs a callback on the main thread once the given assets have loaded, or
+     * right away (posted) if they already have. A failed asset is logged and
+     * does not hold the callback back, so the game still starts without it.
+     *
+     * @param callback Code to run when ready
+     * @param assets Assets to wait for; none means all of them
+     */
+    public void whenReady(Runnable callback, Asset... assets) {
+        if (assets.length == 0) assets = Asset.values();
+        CompletableFuture<?>[] waitOn = new CompletableFuture<?>[assets.length];
+        for (int i = 0; i < assets.length; i++) {
+            waitOn[i] = futures.get(assets[i]);
+        }
+        CompletableFuture.allOf(waitOn).whenComplete((ignored, error) -> {
+            if (error != null) {
+                Log.e("AssetPreloader", "Error: an asset failed to load.", error);
+            }
+            mainHandler.post(callback);
+        });
+    }
+
+    /**
+     * Returns the shared sound manager, creating it on first use. SoundPool
+     * decodes the effects asynchronously, so this returns quickly.
+     *
+     * @return The sound manager
+     */
+    public synchronized SoundManager getSoundManager() {
+        if (soundManager == null) {
+            soundManager = new SoundManager(appContext);
+        }
+        return soundManager;
+    }
+
+    /**
+     * Returns the shared sound dispatcher, creating it and its audio thread on
+     * first use. Game code triggers effects through this rather than calling
+     * the sound manager directly.
+     *
+     * @return The sound dispatcher
+     */
+    public synchronized SoundDispatcher getSoundDispatcher() {
+        if (soundDispatcher == null) {
+            soundDispatcher = new SoundDispatcher(getSoundManager());
+        }
+        return soundDispatcher;
+    }
+
+    /**
+     * Returns the shared music player, creating it on first use. The track is
+     * prepared asynchronously, so this returns quickly.
+     *
+     * @return The music player
+     */
+    public synchronized MusicPlayer getMusicPlayer() {
+        if (musicPlayer == null) {
+            musicPlayer = new MusicPlayer(appContext, R.raw.background_music3, () -> complete(Asset.MUSIC));
+        }
+        return musicPlayer;
+    }
+}
@@ -2,24 +2,35 @@ package edu.commonwealthu.finalproject;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.View;
 
 /**
  * Custom View class that manages a scrolling background for a game.
  * Handles background image scaling, continuous scrolling, and rendering.
+ * The bitmap itself comes from {@link BackgroundCache} and is shared with the
+ * game surface.
+ *
+ * Scrolling is time based: the offset advances by elapsed time, and new frames
+ * are only requested while the view is attached, visible and enabled with
+ * {@link #setAnimating(boolean)}. A hidden or covered background costs nothing.
  *
  * @author Jacob Leonardo
  */
 
 public class Background extends View {
 
-    private Bitmap background;
+    private static final float SCROLL_SPEED_DP = 420f; // dp/s, as the game's background
+    private static final long MAX_FRAME_MS = 250; // caps the jump after a stall
+
     private Bitmap scaledBackground;
-    private int backgroundX = 0;
-    private int scrollSpeed = 7;
+    private float backgroundX = 0f;
+    private float scrollSpeed;
+    private long lastFrameMillis = 0;
+    private boolean animating = true;
+    private boolean visibleToUser = false;
 
     /**
      * Constructor for creating Background in code without XML attributes.
@@ -43,15 +54,64 @@ public class Background extends View {
     }
 
     /**
-     * Initializes background bitmap and ensures view can be drawn.
+     * Ensures view can be drawn and sets the scroll speed for the display
+     * density. The bitmap is loaded once the size is known.
      */
     public void init() {
-        background = BitmapFactory.decodeResource(getResources(), R.drawable.background);
         setWillNotDraw(false);
+        scrollSpeed = SCROLL_SPEED_DP * getResources().getDisplayMetrics().density;
+    }
+
+    /**
+     * Starts or stops the scrolling animation, e.g. when the game screen covers
+     * this view or the activity is paused.
+     *
+     * @param animating Whether the background should scroll
+     */
+    public void setAnimating(boolean animating) {
+        if (this.animating == animating) return;
+        this.animating = animating;
+        lastFrameMillis = 0;
+        if (shouldAnimate()) {
+            postInvalidateOnAnimation();
+        }
     }
 
     /**
-     * Scales background bitmap when view size is determined.
+     * Tracks whether the view is actually visible on screen, which covers its own
+     * visibility, its ancestors' and the window's.
+     *
+     * @param isVisible Whether this view and all its ancestors are visible
+     */
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        visibleToUser = isVisible;
+        lastFrameMillis = 0;
+        if (shouldAnimate()) {
+            postInvalidateOnAnimation();
+        }
+    }
+
+    /**
+     * Stops requesting frames once the view leaves the window.
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        visibleToUser = false;
+        lastFrameMillis = 0;
+    }
+
+    /**
+     * @return Whether the view is attached, visible and allowed to scroll
+     */
+    private boolean shouldAnimate() {
+        return animating && visibleToUser && isAttachedToWindow() && scaledBackground != null;
+    }
+
+    /**
+     * Fetches the shared background bitmap at the view's size once it is determined.
      *
      * @param w Current width of view
      * @param h Current height of view
@@ -61,14 +121,13 @@ public class Background extends View {
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        if (background != null) {
-            scaledBackground = Bitmap.createScaledBitmap(background, w, h, false);
-        }
+        scaledBackground = BackgroundCache.get(getResources(), w, h);
     }
 
     /**
      * Renders scrolling background by drawing two background bitmaps.
-     * Implements continuous scrolling effect with automatic reset.
+     * Advances the scroll offset by the time since the previous frame and asks
+     * for another frame only while the animation should run.
      *
      * @param canvas Canvas to draw background on
      */
@@ -77,18 +136,27 @@ public class Background extends View {
         super.onDraw(canvas);
 
         if (scaledBackground != null) {
-            int canvasWidth = canvas.getWidth();
+            int width = getWidth();
+            boolean animate = shouldAnimate();
 
-            canvas.drawBitmap(scaledBackground, backgroundX, 0, null);
-            canvas.drawBitmap(scaledBackground, backgroundX + canvasWidth, 0, null);
+            if (animate) {
+                long now = SystemClock.uptimeMillis();
+                if (lastFrameMillis != 0) {
+                    long elapsed = Math.min(now - lastFrameMillis, MAX_FRAME_MS);
+                    backgroundX -= scrollSpeed * elapsed / 1000f;
+                    if (backgroundX <= -width) {
+                        backgroundX %= width;
+                    }
+                }
+                lastFrameMillis = now;
+            }
 
-            backgroundX -= scrollSpeed;
+            canvas.drawBitmap(scaledBackground, backgroundX, 0, null);
+            canvas.drawBitmap(scaledBackground, backgroundX + width, 0, null);
 
-            if (backgroundX <= -canvasWidth) {
-                backgroundX = 0;
+            if (animate) {
+                postInvalidateOnAnimation();
             }
-
-            postInvalidateDelayed(16); // ~60 FPS
         }
     }
 
@@ -0,0 +1,131 @@
+package edu.commonwealthu.finalproject;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+/**
+ * Decodes the large background image once, at the size it is displayed at,
+ * and shares it between every view that draws it.
+ *
+ * The image is first measured with a bounds-only decode, then decoded with the
+ * largest power-of-two sample size that still covers the target, in RGB_565
+ * since the photo has no transparency. That keeps peak memory to a fraction of
+ * a full-resolution ARGB_8888 decode. The menu background and the game surface
+ * share the same parent size, so they normally share one bitmap.
+ *
+ * The decode can be started early with {@link #preload} (e.g. from the splash
+ * screen, before view sizes are known); the first {@link #get} then only has
+ * to scale the preloaded image to its exact size.
+ *
+ * @author Jacob Leonardo
+ */
+public final class BackgroundCache {
+    private static Bitmap cached;
+    private static int cachedWidth, cachedHeight;
+    private static Bitmap preloaded;
+
+    private BackgroundCache() {
+    }
+
+    /**
+     * Returns the background scaled to the given size, decoding it only if no
+     * bitmap of that size is cached. The returned bitmap is shared and must not
+     * be recycled or modified.
+     *
+     * @param res Android Resources used to decode the image
+     * @param width Target width in pixels
+     * @param height Target height in pixels
+     * @return The shared background bitmap, or null if it could not be decoded
+     */
+    public static synchronized Bitmap get(Resources res, int width, int height) {
+        if (width <= 0 || height <= 0) return null;
+        if (cached != null && cachedWidth == width && cachedHeight == height) {
+            return cached;
+        }
+
+        Bitmap decoded = preloaded;
+        preloaded = null;
+        if (decoded == null) {
+            decoded = decode(res, width, height);
+        }
+        if (decoded == null) return null;
+
+        Bitmap scaled = decoded;
+        if (decoded.getWidth() != width || decoded.getHeight() != height) {
+            scaled = Bitmap.createScaledBitmap(decoded, width, height, true);
+            decoded.recycle();
+        }
+        scaled.prepareToDraw();
+
+        // The previous bitmap may still be drawn by a view that has not been
+        // resized yet, so it is left to the garbage collector instead of recycled.
+        cached = scaled;
+        cachedWidth = width;
+        cachedHeight = height;
+        return cached;
+    }
+
+    /**
+     * Decodes the background ahead of time for an expected size, typically the
+     * display size. Does nothing if a background is already available.
+     *
+     * @param res Android Resources used to decode the image
+     * @param width Expected width in pixels
+     * @param height Expected height in pixels
+     */
+    public static synchronized void preload(Resources res, int width, int height) {
+        if (cached != null || preloaded != null || width <= 0 || height <= 0) return;
+        preloaded = decode(res, width, height);
+    }
+
+    /**
+     * Drops the cached bitmap, e.g. when the system is low on memory.
+     */
+    public static synchronized void clear() {
+        preloaded = null;
+        cached = null;
+        cachedWidth = 0;
+        cachedHeight = 0;
+    }
+
+    /**
+     * Decodes the background at the smallest power-of-two sample size that is
+     * still at least as large as the target.
+     *
+     * @param res Android Resources used to decode the image
+     * @param width Target width in pixels
+     * @param height Target height in pixels
+     * @return The decoded bitmap, or null on failure
+     */
+    private static Bitmap decode(Resources res, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(res, R.drawable.background, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, width, height);
+        options.inJustDecodeBounds = false;
+        options.inPreferredConfig = Bitmap.Config.RGB_565;
+        options.inScaled = false; // sample size already matches the target, skip density scaling
+        return BitmapFactory.decodeResource(res, R.drawable.background, options);
+    }
+
+    /**
+     * Picks the largest power of two that keeps the decoded image at least as
+     * large as the requested size in both dimensions.
+     *
+     * @param srcWidth Width of the encoded image
+     * @param srcHeight Height of the encoded image
+     * @param reqWidth Requested width
+     * @param reqHeight Requested height
+     * @return Sample size to decode with
+     */
+    static int calculateInSampleSize(int srcWidth, int srcHeight, int reqWidth, int reqHeight) {
+        int sampleSize = 1;
+        while (srcWidth / (sampleSize * 2) >= reqWidth && srcHeight / (sampleSize * 2) >= reqHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+}
@@ -0,0 +1,173 @@
+package edu.commonwealthu.finalproject;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.util.Log;
+
+import androidx.core.content.res.ResourcesCompat;
+
+/**
+ * The pause and game over screens, drawn over the game on its surface instead
+ * of in dialog windows. Nothing is inflated or created when one is shown:
+ * text, paints and the play button image are prepared once, and button
+ * positions only change with the surface size.
+ *
+ * Touches are routed by {@link #buttonAt}, which maps a point to the button
+ * under it for the screen being shown.
+ *
+ * @author Jacob Leonardo
+ */
+public final class GameOverlay {
+    public static final int NONE = 0;
+    public static final int PAUSED = 1;
+    public static final int GAME_OVER = 2;
+
+    public static final int BUTTON_NONE = 0;
+    public static final int BUTTON_PRIMARY = 1; // resume, or play again
+    public static final int BUTTON_EXIT = 2;
+
+    private static final int DIM_COLOR = 0xB0000000;
+    private static final float TITLE_SP = 60f;
+    private static final float TEXT_DP = 32f;
+
+    private final String pausedTitle, loseTitle, scoreLabel, question, yes, no;
+    private final Paint dim = new Paint();
+    private final Paint title = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint text = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint outline = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Bitmap playButton;
+    private final float density;
+    private final RectF primary = new RectF();
+    private final RectF exit = new RectF();
+    private final RectF play = new RectF();
+    private float centerX, titleY, scoreLabelY, scoreTop, questionY;
+
+    /**
+     * Loads the texts, fonts and images of both screens.
+     *
+     * @param context Context to load resources with
+     */
+    public GameOverlay(Context context) {
+        Resources res = context.getResources();
+        density = res.getDisplayMetrics().density;
+        pausedTitle = res.getString(R.string.paused_game);
+        loseTitle = res.getString(R.string.lose_message);
+        scoreLabel = res.getString(R.string.score_is);
+        question = res.getString(R.string.lose_question);
+        yes = res.getString(R.string.new_game);
+        no = res.getString(R.string.exit_game);
+
+        Typeface titleFont = null;
+        try {
+            titleFont = ResourcesCompat.getFont(context, R.font.title);
+        } catch (Resources.NotFoundException e) {
+            Log.e("GameOverlay", "Error: title font could not be loaded.", e);
+        }
+        dim.setColor(DIM_COLOR);
+        title.setTypeface(titleFont);
+        title.setColor(Color.WHITE);
+        title.setTextAlign(Paint.Align.CENTER);
+        title.setTextSize(TITLE_SP * res.getDisplayMetrics().scaledDensity);
+        text.setTypeface(titleFont);
+        text.setColor(Color.WHITE);
+        text.setTextAlign(Paint.Align.CENTER);
+        text.setTextSize(TEXT_DP * density);
+        outline.setStyle(Paint.Style.STROKE);
+        outline.setStrokeWidth(3 * density);
+        outline.setColor(ResourcesCompat.getColor(res, R.color.neon_outline, null));
+        playButton = BitmapFactory.decodeResource(res, R.drawable.play);
+    }
+
+    /**
+     * Places the texts and buttons for a surface size.
+     *
+     * @param width Width of the surface
+     * @param height Height of the surface
+     * @param scoreHeight Height of a line of score digits
+     */
+    public void layout(int width, int height, int scoreHeight) {
+        float gap = 25 * density;
+        float buttonWidth = 120 * density, buttonHeight = 64 * density;
+        centerX = width / 2f;
+        titleY = height * 0.3f;
+        scoreLabelY = titleY + gap + text.getTextSize();
+        scoreTop = scoreLabelY + gap;
+        questionY = scoreTop + scoreHeight + gap + text.getTextSize();
+
+        float buttonTop = questionY + gap;
+        primary.set(centerX - gap / 2 - buttonWidth, buttonTop, centerX - gap / 2, buttonTop + buttonHeight);
+        exit.set(centerX + gap / 2, buttonTop, centerX + gap / 2 + buttonWidth, buttonTop + buttonHeight);
+
+        float playWidth = playButton != null ? playButton.getWidth() : buttonHeight;
+        float playHeight = playButton != null ? playButton.getHeight() : buttonHeight;
+        play.set(centerX - playWidth / 2, titleY + gap, centerX + playWidth / 2, titleY + gap + playHeight);
+    }
+
+    /**
+     * Draws a screen over the game.
+     *
+     * @param canvas Canvas to draw on
+     * @param screen {@link #PAUSED} or {@link #GAME_OVER}; {@link #NONE} draws nothing
+     * @param points Score of the game
+     * @param score Renderer for the score, or null to leave it out
+     */
+    public void draw(Canvas canvas, int screen, int points, ScoreRenderer score) {
+        if (screen == NONE) return;
+        canvas.drawPaint(dim);
+        if (screen == PAUSED) {
+            canvas.drawText(pausedTitle, centerX, titleY, title);
+            if (playButton != null) {
+                canvas.drawBitmap(playButton, null, play, null);
+            } else {
+                canvas.drawRect(play, outline);
+            }
+            return;
+        }
+
+        canvas.drawText(loseTitle, centerX, titleY, title);
+        canvas.drawText(scoreLabel, centerX, scoreLabelY, text);
+        if (score != null) score.draw(canvas, points, centerX, scoreTop, null);
+        canvas.drawText(question, centerX, questionY, text);
+        drawButton(canvas, primary, yes);
+        drawButton(canvas, exit, no);
+    }
+
+    /**
+     * @param canvas Canvas to draw on
+     * @param bounds Bounds of the button
+     * @param label Text of the button
+     */
+    private void drawButton(Canvas canvas, RectF bounds, String label) {
+        float radius = 12 * density;
+        canvas.drawRoundRect(bounds, radius, radius, outline);
+        float baseline = bounds.centerY() - (text.descent() + text.ascent()) / 2;
+        canvas.drawText(label, bounds.centerX(), baseline, text);
+    }
+
+    /**
+     * Finds the button at a point of the surface.
+     *
+     * @param screen Screen being shown
+     * @param x Horizontal position on the surface
+     * @param y Vertical position on the surface
+     * @return {@link #BUTTON_PRIMARY}, {@link #BUTTON_EXIT} or {@link #BUTTON_NONE}
+     */
+    public int buttonAt(int screen, float x, float y) {
+        if (screen == PAUSED) {
+            // The whole screen resumes, the play button only shows how.
+            return BUTTON_PRIMARY;
+        }
+        if (screen == GAME_OVER) {
+            if (primary.contains(x, y)) return BUTTON_PRIMARY;
+            if (exit.contains(x, y)) return BUTTON_EXIT;
+        }
+        return BUTTON_NONE;
+    }
+}
@@ -0,0 +1,822 @@
+package edu.commonwealthu.finalproject;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.core.content.res.ResourcesCompat;
+
+import edu.commonwealthu.finalproject.engine.CollisionMask;
+import edu.commonwealthu.finalproject.engine.FrameStats;
+import edu.commonwealthu.finalproject.engine.GameConfig;
+import edu.commonwealthu.finalproject.engine.GameWorld;
+import edu.commonwealthu.finalproject.engine.Icon;
+import edu.commonwealthu.finalproject.engine.InputQueue;
+import edu.commonwealthu.finalproject.engine.Replay;
+import edu.commonwealthu.finalproject.engine.TraceRecorder;
+
+import java.util.Locale;
+
+/**
+ * SurfaceView that owns the gameplay frame loop. A dedicated render thread
+ * advances the {@link GameWorld} and draws it, together with the scrolling
+ * background, onto a locked canvas so gameplay never waits on the UI thread.
+ *
+ * The world runs on a fixed timestep and each frame is drawn interpolated
+ * between the last two steps, so gameplay plays the same no matter how often
+ * frames are drawn. This view only feeds input in and draws state out; all
+ * game rules live in the engine module.
+ *
+ * Once a game is running the frame path allocates nothing: the world works on
+ * primitives, sprites are prepared per surface size and events reach the UI
+ * thread through preallocated runnables. The score is drawn on the surface
+ * from the world's int score by a {@link ScoreRenderer}, not by a text view.
+ *
+ * The pause and game over screens are a {@link GameOverlay} drawn over the
+ * last frame, not dialog windows. Starting another game only resets the
+ * existing world, so the next game's first frame is drawn on the next vsync.
+ *
+ * Touches are not applied when they arrive. {@link #jump(long)} only stamps the
+ * press into the world's lock-free input queue, and the world applies it at the
+ * step that covers its timestamp. The time from the touch to the first frame
+ * posted with the jump applied is measured as the input latency.
+ *
+ * Frames are paced by a {@link Choreographer} on the render thread rather than
+ * a fixed sleep. While no game is being simulated (paused, game over or not
+ * started) the render thread draws the current state once and then requests
+ * no more frames until something changes.
+ *
+ * Every simulated frame is recorded in a {@link FrameStats} histogram: the time
+ * since the previous vsync, simulation and draw time and any missed vsyncs.
+ * With {@link #setHudEnabled(boolean)} the percentiles, jank and GC counts are
+ * drawn over the game as a debug HUD.
+ *
+ * @author Jacob Leonardo
+ */
+public class GameSurfaceView extends SurfaceView implements SurfaceHolder.Callback {
+    private static final long HUD_REFRESH_MS = 500;
+    private static final float BACKGROUND_SPEED_DP = 420f; // dp/s
+    private static final float LATENCY_SMOOTHING = 0.1f;
+    private static final float SCORE_TEXT_DP = 88f;
+    private static final float SCORE_TOP_DP = 100f;
+
+    private final Object stateLock = new Object();
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final ObstacleRenderer obstacles = new ObstacleRenderer();
+    private final GameConfig config = new GameConfig();
+    private final FrameStats frameStats = new FrameStats();
+    private final Replay replay = new Replay();
+    private final FrameStats uiFrameStats = new FrameStats();
+    private final Paint hudPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final String[] hudLines = new String[4];
+    private boolean hudEnabled = false;
+    private long hudUpdatedAt = 0;
+    private long gcCountAtReset = 0;
+    private GameThread gameThread;
+    private GameListener listener;
+    private SoundDispatcher sounds;
+    private TraceRecorder tracer;
+
+    private GameWorld world;
+    private volatile InputQueue input;
+    private Bitmap background, iconSprite;
+    private ScoreRenderer scoreRenderer;
+    private GameOverlay overlay;
+    private int overlayScreen = GameOverlay.NONE;
+    private float scoreTop;
+    private CollisionMask iconMask, topPipeMask, bottomPipeMask;
+    private float backgroundX = 0f;
+    private float backgroundSpeed;
+    private int surfaceWidth, surfaceHeight;
+    private int tickRate = config.getTickRate();
+    private boolean isGameRunning = false;
+    private boolean startPending = false;
+    private volatile int latestPoints = 0;
+    private volatile float averageInputLatencyNanos = 0f;
+    private volatile long maxInputLatencyNanos = 0;
+    private int measuredInputs = 0;
+    private long shownInputNanos = 0; // render thread only
+    private long frameInputNanos = 0; // render thread only
+
+    private final Runnable pointScoredTask = () -> {
+        if (listener != null) listener.onPointScored(latestPoints);
+    };
+    private final Runnable gameOverTask = () -> {
+        if (listener != null) listener.onGameOver(latestPoints);
+    };
+    private final Runnable buildMasksTask = this::buildCollisionMasks;
+
+    /**
+     * Receives game events from the render thread. Callbacks are always
+     * delivered on the UI thread.
+     */
+    public interface GameListener {
+        /**
+         * Called when the player passes a pipe.
+         *
+         * @param points The new score
+         */
+        void onPointScored(int points);
+
+        /**
+         * Called when the player collides with a pipe or the screen edge.
+         *
+         * @param points The final score
+         */
+        void onGameOver(int points);
+    }
+
+    /**
+     * Constructor for creating GameSurfaceView in code without XML attributes.
+     *
+     * @param context The Context in which the view is created
+     */
+    public GameSurfaceView(Context context) {
+        super(context);
+        init();
+    }
+
+    /**
+     * Constructor for creating GameSurfaceView from XML layout.
+     *
+     * @param context The Context in which the view is created
+     * @param attrs Attributes set from XML
+     */
+    public GameSurfaceView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init();
+    }
+
+    /**
+     * Registers for surface callbacks, sizes the game for the display density
+     * and prepares the overlay screens.
+     */
+    private void init() {
+        getHolder().addCallback(this);
+        // Sizes and speeds are defined in dp, so sprites and their collision
+        // masks are built at the same physical size on every display.
+        float density = getResources().getDisplayMetrics().density;
+        config.scale(density);
+        backgroundSpeed = BACKGROUND_SPEED_DP * density;
+        overlay = new GameOverlay(getContext());
+        hudPaint.setColor(Color.WHITE);
+        hudPaint.setTextSize(14 * getResources().getDisplayMetrics().scaledDensity);
+        hudPaint.setShadowLayer(2f, 1f, 1f, Color.BLACK);
+    }
+
+    /**
+     * @param listener Receiver of point and game over events
+     */
+    public void setGameListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets where point and collision sounds are sent. They are triggered from
+     * the render thread the moment they happen, without waiting for the UI thread.
+     *
+     * @param sounds Dispatcher for sound effects, or null for silence
+     */
+    public void setSoundDispatcher(SoundDispatcher sounds) {
+        this.sounds = sounds;
+    }
+
+    /**
+     * Sets the recorder for trace sections of the game loop: the world's step
+     * phases and drawing.
+     *
+     * @param tracer Trace recorder, or null
+     */
+    public void setTracer(TraceRecorder tracer) {
+        synchronized (stateLock) {
+            this.tracer = tracer;
+            if (world != null) world.setTracer(tracer);
+        }
+    }
+
+    /**
+     * Starts a new game. If the surface size is not known yet the game starts
+     * as soon as it is.
+     */
+    public void startGame() {
+        synchronized (stateLock) {
+            if (surfaceWidth > 0 && surfaceHeight > 0) {
+                resetWorld();
+            } else {
+                startPending = true;
+            }
+        }
+    }
+
+    /**
+     * Resets the world with a fresh seed and starts simulating it. The surface
+     * size, tick rate and collision masks are handed to the world only here, so a game
+     * and its replay keep the ones they started with even if the surface
+     * changes while it is played.
+     */
+    private void resetWorld() {
+        long seed = System.nanoTime();
+        config.setScreenSize(surfaceWidth, surfaceHeight).setTickRate(tickRate);
+        takeCollisionMasks();
+        if (world == null) {
+            world = new GameWorld(config, seed);
+            input = world.getInput();
+            world.setTracer(tracer);
+            world.setCollisionMasks(iconMask, topPipeMask, bottomPipeMask);
+            world.setReplayRecorder(replay);
+            world.setListener(new GameWorld.Listener() {
+                @Override
+                public void onPointScored(int points) {
+                    latestPoints = points;
+                    if (sounds != null) sounds.post(SoundDispatcher.POINT);
+                    post(pointScoredTask);
+                }
+
+                @Override
+                public void onGameOver(int points) {
+                    isGameRunning = false;
+                    overlayScreen = GameOverlay.GAME_OVER;
+                    latestPoints = points;
+                    if (sounds != null) sounds.post(SoundDispatcher.COLLISION);
+                    post(gameOverTask);
+                }
+            });
+        } else {
+            world.setCollisionMasks(iconMask, topPipeMask, bottomPipeMask);
+            world.reset(seed);
+        }
+        startPending = false;
+        latestPoints = 0;
+        overlayScreen = GameOverlay.NONE;
+        isGameRunning = true;
+        resetFrameStats();
+        requestFrame();
+    }
+
+    /**
+     * Returns the replay of the current or last game in its binary form, which
+     * {@code ReplayPlayer} re-simulates exactly.
+     *
+     * @return The replay, or null if no game was played
+     */
+    public byte[] getReplayBytes() {
+        synchronized (stateLock) {
+            return world != null ? replay.toByteArray() : null;
+        }
+    }
+
+    /**
+     * Freezes the simulation and shows the pause screen over the last frame.
+     */
+    public void pauseGame() {
+        synchronized (stateLock) {
+            isGameRunning = false;
+            if (world != null && !world.isGameOver()) {
+                overlayScreen = GameOverlay.PAUSED;
+                requestFrame();
+            }
+        }
+    }
+
+    /**
+     * Continues a paused game.
+     */
+    public void resumeGame() {
+        synchronized (stateLock) {
+            if (world != null && !world.isGameOver()) {
+                world.getInput().clear(); // taps made while paused don't count
+                overlayScreen = GameOverlay.NONE;
+                isGameRunning = true;
+                requestFrame();
+            }
+        }
+    }
+
+    /**
+     * Requests a jump now, which the world applies on its next step.
+     */
+    public void jump() {
+        jump(System.nanoTime());
+    }
+
+    /**
+     * Queues a jump pressed at the given time, which the world applies at the
+     * step covering that time. Does not wait for the render thread.
+     *
+     * @param eventTimeNanos When the press happened, on the {@link System#nanoTime()} clock
+     */
+    public void jump(long eventTimeNanos) {
+        InputQueue queue = input;
+        if (queue != null && !queue.offer(eventTimeNanos)) {
+            Log.w("GameSurfaceView", "Input queue full, jump dropped");
+        }
+    }
+
+    /** @return Smoothed time from a touch to the first frame showing its jump, in nanoseconds */
+    public float getAverageInputLatencyNanos() {
+        return averageInputLatencyNanos;
+    }
+
+    /** @return Longest time from a touch to the first frame showing its jump, in nanoseconds */
+    public long getMaxInputLatencyNanos() {
+        return maxInputLatencyNanos;
+    }
+
+    /**
+     * Records the latency of a jump that just became visible. Render thread only.
+     *
+     * @param latency Time from the touch to the frame being posted, in nanoseconds
+     */
+    private void recordInputLatency(long latency) {
+        averageInputLatencyNanos += (latency - averageInputLatencyNanos) * LATENCY_SMOOTHING;
+        if (latency > maxInputLatencyNanos) maxInputLatencyNanos = latency;
+        if (++measuredInputs % 20 == 0) {
+            Log.d("GameSurfaceView", "Touch-to-frame latency avg "
+                    + (long) averageInputLatencyNanos / 1_000_000 + " ms, max "
+                    + maxInputLatencyNanos / 1_000_000 + " ms");
+        }
+    }
+
+    /**
+     * Changes how many simulation steps run per second. Lower rates save CPU on
+     * weak devices; gameplay speed is unaffected because physics use seconds.
+     * The rate applies from the next game, so a game and its replay always
+     * run at one rate.
+     *
+     * @param ticksPerSecond Number of simulation steps per second
+     */
+    public void setTickRate(int ticksPerSecond) {
+        synchronized (stateLock) {
+            tickRate = ticksPerSecond;
+        }
+    }
+
+    /**
+     * Asks the render thread for a frame, e.g. after the state changed while idle.
+     */
+    private void requestFrame() {
+        GameThread thread = gameThread;
+        if (thread != null) thread.requestFrame();
+    }
+
+    /**
+     * Shows or hides the frame metrics HUD.
+     *
+     * @param enabled Whether the HUD is drawn
+     */
+    public void setHudEnabled(boolean enabled) {
+        synchronized (stateLock) {
+            hudEnabled = enabled;
+            hudUpdatedAt = 0;
+            requestFrame();
+        }
+    }
+
+    /**
+     * Records a UI thread frame reported by the window's FrameMetrics, which
+     * do not cover this surface but show whether the views around it jank.
+     *
+     * @param totalNanos Total duration of the UI frame
+     * @param vsyncNanos Display refresh period
+     */
+    public void recordUiFrame(long totalNanos, long vsyncNanos) {
+        synchronized (stateLock) {
+            uiFrameStats.record(totalNanos, 0, totalNanos, FrameStats.missedVsyncs(totalNanos, vsyncNanos));
+        }
+    }
+
+    /**
+     * Clears the frame metrics, e.g. at the start of a run. Callers hold the state lock.
+     */
+    private void resetFrameStats() {
+        frameStats.reset();
+        uiFrameStats.reset();
+        gcCountAtReset = readGcCount();
+        hudUpdatedAt = 0;
+    }
+
+    /**
+     * @return Number of garbage collections since the process started, or 0 if unknown
+     */
+    private static long readGcCount() {
+        String count = Debug.getRuntimeStat("art.gc.gc-count");
+        try {
+            return count != null ? Long.parseLong(count) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return {@link GameOverlay#PAUSED} or {@link GameOverlay#GAME_OVER} while
+     *         that screen is shown, otherwise {@link GameOverlay#NONE}
+     */
+    public int getOverlayScreen() {
+        synchronized (stateLock) {
+            return overlayScreen;
+        }
+    }
+
+    /**
+     * Finds the button of the shown pause or game over screen at a point.
+     *
+     * @param x Horizontal position on this view
+     * @param y Vertical position on this view
+     * @return One of the {@code GameOverlay.BUTTON_} constants
+     */
+    public int getOverlayButton(float x, float y) {
+        synchronized (stateLock) {
+            return overlay.buttonAt(overlayScreen, x, y);
+        }
+    }
+
+    /** @return The world of the current or last game, or null before the first game */
+    @VisibleForTesting
+    GameWorld getWorld() {
+        synchronized (stateLock) {
+            return world;
+        }
+    }
+
+    /** @return Whether a game is currently being simulated */
+    public boolean isGameRunning() {
+        synchronized (stateLock) {
+            return isGameRunning;
+        }
+    }
+
+    /**
+     * Starts the render thread once the surface exists.
+     *
+     * @param holder The SurfaceHolder whose surface is being created
+     */
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        Display display = getDisplay();
+        float refreshRate = display != null ? display.getRefreshRate() : 60f;
+        gameThread = new GameThread(holder, (long) (1e9 / refreshRate));
+        gameThread.startRendering();
+    }
+
+    /**
+     * Records the surface size, prepares the sprites and starts a game that was
+     * requested before the size was known. A game already running keeps the
+     * size it started with; the new one applies from the next game.
+     *
+     * @param holder The SurfaceHolder whose surface has changed
+     * @param format The new pixel format of the surface
+     * @param width The new width of the surface
+     * @param height The new height of the surface
+     */
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        synchronized (stateLock) {
+            surfaceWidth = width;
+            surfaceHeight = height;
+            loadSprites();
+
+            if (startPending) {
+                resetWorld();
+            }
+            requestFrame();
+        }
+    }
+
+    /**
+     * Stops the render thread and waits for it to finish before the surface goes away.
+     *
+     * @param holder The SurfaceHolder whose surface is being destroyed
+     */
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        if (gameThread != null) {
+            gameThread.stopRendering();
+            gameThread = null;
+        }
+    }
+
+    /**
+     * Looks up the background and the icon and pipe sprites for the current
+     * surface size. All of them are shared through {@link BackgroundCache} and
+     * {@link SpriteCache}, so this only decodes the first time a size is seen.
+     * The score digit atlas is rendered on the first call.
+     */
+    private void loadSprites() {
+        background = BackgroundCache.get(getResources(), surfaceWidth, surfaceHeight);
+
+        SpriteCache sprites = SpriteCache.getInstance();
+        int iconSize = config.getIconSize();
+        int pipeHeight = pipeHeight();
+        iconSprite = sprites.get(getResources(), R.drawable.game_icon, iconSize, iconSize, false);
+        obstacles.setSprites(
+                sprites.get(getResources(), R.drawable.bottom_pipe, config.getPipeWidth(), pipeHeight, true),
+                sprites.get(getResources(), R.drawable.bottom_pipe, config.getPipeWidth(), pipeHeight, false));
+
+        if (scoreRenderer == null) {
+            Typeface scoreFont = null;
+            try {
+                scoreFont = ResourcesCompat.getFont(getContext(), R.font.scores);
+            } catch (Resources.NotFoundException e) {
+                Log.e("GameSurfaceView", "Error: score font could not be loaded.", e);
+            }
+            float density = getResources().getDisplayMetrics().density;
+            scoreRenderer = new ScoreRenderer(scoreFont, SCORE_TEXT_DP * density, Color.WHITE);
+            scoreTop = SCORE_TOP_DP * density;
+        }
+        overlay.layout(surfaceWidth, surfaceHeight, scoreRenderer.getHeight());
+    }
+
+    /**
+     * Simulates and draws one frame under the state lock: advances the world
+     * by the time since the previous frame while a game is running, draws it
+     * and records the frame's metrics. The render thread calls this on every
+     * vsync; tests without a real surface call it with their own canvas.
+     *
+     * @param canvas Canvas to draw on
+     * @param frameTimeNanos Time of the vsync that started this frame, on the {@link System#nanoTime()} clock
+     * @param interval Time since the previous simulated frame, or 0 for the first one
+     * @param vsyncNanos Display refresh period
+     * @return Whether a game is being simulated, so another frame should follow
+     */
+    @VisibleForTesting
+    boolean drawFrame(Canvas canvas, long frameTimeNanos, long interval, long vsyncNanos) {
+        synchronized (stateLock) {
+            float frameSeconds = interval / 1e9f;
+            long simStart = System.nanoTime();
+            float alpha = 1f;
+            boolean simulating = world != null && isGameRunning;
+            frameInputNanos = 0;
+            if (simulating) {
+                world.advance(frameSeconds, frameTimeNanos);
+                alpha = world.getInterpolation();
+                scrollBackground(frameSeconds);
+                if (world.getLastInputNanos() != shownInputNanos) {
+                    frameInputNanos = shownInputNanos = world.getLastInputNanos();
+                }
+            }
+            long drawStart = System.nanoTime();
+            long traceStart = tracer != null ? tracer.begin() : 0;
+            render(canvas, alpha);
+            if (traceStart != 0) tracer.end(TraceRecorder.DRAW, traceStart);
+            long drawEnd = System.nanoTime();
+
+            if (simulating && interval > 0) {
+                frameStats.record(interval, drawStart - simStart, drawEnd - drawStart,
+                        FrameStats.missedVsyncs(interval, vsyncNanos));
+            }
+            return simulating;
+        }
+    }
+
+    /**
+     * Moves the background by the time elapsed this frame.
+     *
+     * @param frameSeconds Real time elapsed since the previous frame
+     */
+    private void scrollBackground(float frameSeconds) {
+        backgroundX -= backgroundSpeed * Math.min(frameSeconds, 0.25f);
+        if (backgroundX <= -surfaceWidth) {
+            backgroundX += surfaceWidth;
+        }
+    }
+
+    /**
+     * @return Height the pipe sprites are rasterized at: the display height,
+     *         which always covers the surface and matches what
+     *         {@link AssetPreloader} warms up before the surface exists
+     */
+    private int pipeHeight() {
+        return Math.max(surfaceHeight, getResources().getDisplayMetrics().heightPixels);
+    }
+
+    /**
+     * Takes the sprites' collision masks for the next game from the sprite
+     * cache. Masks are only looked up here, never built: the asset preloader
+     * builds them before a game can start, and any that are missing, e.g.
+     * after the cache was cleared, are rebuilt on the render thread while this
+     * game collides with boxes. Callers hold the state lock.
+     */
+    private void takeCollisionMasks() {
+        SpriteCache sprites = SpriteCache.getInstance();
+        int iconSize = config.getIconSize();
+        int pipeHeight = pipeHeight();
+        iconMask = sprites.peekMask(R.drawable.game_icon, iconSize, iconSize, false);
+        bottomPipeMask = sprites.peekMask(R.drawable.bottom_pipe, config.getPipeWidth(), pipeHeight, false);
+        topPipeMask = sprites.peekMask(R.drawable.bottom_pipe, config.getPipeWidth(), pipeHeight, true);
+        if ((iconMask == null || bottomPipeMask == null || topPipeMask == null) && gameThread != null) {
+            gameThread.post(buildMasksTask);
+        }
+    }
+
+    /**
+     * Builds the collision masks at the current sizes for a later game. Runs on
+     * the render thread, outside the state lock.
+     */
+    private void buildCollisionMasks() {
+        int iconSize, pipeWidth, pipeHeight;
+        synchronized (stateLock) {
+            iconSize = config.getIconSize();
+            pipeWidth = config.getPipeWidth();
+            pipeHeight = pipeHeight();
+        }
+        SpriteCache sprites = SpriteCache.getInstance();
+        sprites.getMask(getResources(), R.drawable.game_icon, iconSize, iconSize, false);
+        sprites.getMask(getResources(), R.drawable.bottom_pipe, pipeWidth, pipeHeight, false);
+        sprites.getMask(getResources(), R.drawable.bottom_pipe, pipeWidth, pipeHeight, true);
+    }
+
+    /**
+     * Draws the scrolling background, pipes, icon and score, and the pause or
+     * game over screen over them.
+     *
+     * @param canvas Locked surface canvas
+     * @param alpha Fraction of a step elapsed since the last update, used for interpolation
+     */
+    private void render(Canvas canvas, float alpha) {
+        if (background != null) {
+            canvas.drawBitmap(background, backgroundX, 0, null);
+            canvas.drawBitmap(background, backgroundX + surfaceWidth, 0, null);
+        } else {
+            canvas.drawColor(Color.BLACK);
+        }
+
+        if (world == null) return;
+
+        obstacles.draw(canvas, world.getPipes(), alpha, surfaceWidth, surfaceHeight, paint);
+
+        Icon icon = world.getIcon();
+        if (iconSprite != null) {
+            canvas.drawBitmap(iconSprite, icon.getX(), icon.getRenderY(alpha), paint);
+        }
+
+        if (scoreRenderer != null && overlayScreen != GameOverlay.GAME_OVER) {
+            scoreRenderer.draw(canvas, world.getPoints(), surfaceWidth / 2f, scoreTop, paint);
+        }
+        overlay.draw(canvas, overlayScreen, world.getPoints(), scoreRenderer);
+
+        if (hudEnabled) drawHud(canvas);
+    }
+
+    /**
+     * Draws the frame metrics HUD. The text is rebuilt only every
+     * {@link #HUD_REFRESH_MS}, so the HUD itself barely shows up in the metrics.
+     *
+     * @param canvas Locked surface canvas
+     */
+    private void drawHud(Canvas canvas) {
+        long now = SystemClock.uptimeMillis();
+        if (hudLines[0] == null || now - hudUpdatedAt >= HUD_REFRESH_MS) {
+            hudUpdatedAt = now;
+            hudLines[0] = String.format(Locale.US, "frame p50 %.1f  p95 %.1f  p99 %.1f ms",
+                    frameStats.percentileNanos(0.50) / 1e6, frameStats.percentileNanos(0.95) / 1e6,
+                    frameStats.percentileNanos(0.99) / 1e6);
+            hudLines[1] = String.format(Locale.US, "jank %d (%d vsyncs missed) of %d frames",
+                    frameStats.getJankCount(), frameStats.getMissedVsyncs(), frameStats.getFrameCount());
+            hudLines[2] = String.format(Locale.US, "sim %.2f ms  draw %.2f ms  gc %d",
+                    frameStats.getAverageSimNanos() / 1e6, frameStats.getAverageDrawNanos() / 1e6,
+                    readGcCount() - gcCountAtReset);
+            hudLines[3] = String.format(Locale.US, "ui p95 %.1f ms  jank %d",
+                    uiFrameStats.percentileNanos(0.95) / 1e6, uiFrameStats.getJankCount());
+        }
+        float lineHeight = hudPaint.getTextSize() * 1.25f;
+        float y = lineHeight * 2;
+        for (String line : hudLines) {
+            canvas.drawText(line, lineHeight, y, hudPaint);
+            y += lineHeight;
+        }
+    }
+
+    /**
+     * Render thread with its own Looper. Frames are driven by a
+     * {@link Choreographer} on that Looper, so each one starts on a vsync and
+     * the world advances by the real time between vsyncs. While no game is being
+     * simulated, no further frame is requested until {@link #requestFrame()}.
+     */
+    private class GameThread extends HandlerThread implements Choreographer.FrameCallback {
+        private final SurfaceHolder holder;
+        private final long vsyncNanos;
+        private volatile boolean running = true;
+        private Handler handler;
+        private Choreographer choreographer;
+        private boolean framePending = false;
+        private long lastFrameTimeNanos = 0;
+        private final Runnable scheduleFrame = this::scheduleFrame;
+
+        /**
+         * @param holder Holder of the surface this thread draws on
+         * @param vsyncNanos Display refresh period
+         */
+        GameThread(SurfaceHolder holder, long vsyncNanos) {
+            super("GameThread", Process.THREAD_PRIORITY_DISPLAY);
+            this.holder = holder;
+            this.vsyncNanos = vsyncNanos;
+        }
+
+        /**
+         * Starts the thread and waits until it can receive frame requests.
+         */
+        void startRendering() {
+            start();
+            handler = new Handler(getLooper());
+        }
+
+        /**
+         * Gets the Choreographer of this thread's Looper.
+         */
+        @Override
+        protected void onLooperPrepared() {
+            choreographer = Choreographer.getInstance();
+        }
+
+        /**
+         * Asks for a frame at the next vsync. Safe to call from any thread.
+         */
+        void requestFrame() {
+            if (handler != null) handler.post(scheduleFrame);
+        }
+
+        /**
+         * Runs a task on this thread. Safe to call from any thread.
+         *
+         * @param task Work to run between frames
+         */
+        void post(Runnable task) {
+            if (handler != null) handler.post(task);
+        }
+
+        /**
+         * Posts the frame callback unless one is already waiting. Render thread only.
+         */
+        private void scheduleFrame() {
+            if (running && !framePending) {
+                framePending = true;
+                choreographer.postFrameCallback(this);
+            }
+        }
+
+        /**
+         * Signals the loop to end and waits for the thread to exit.
+         */
+        void stopRendering() {
+            running = false;
+            if (handler != null) {
+                handler.post(() -> choreographer.removeFrameCallback(this));
+            }
+            quitSafely();
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Draws one frame, advancing the world by the time since the previous
+         * vsync, and requests the next frame while a game is being simulated.
+         *
+         * @param frameTimeNanos Time of the vsync that started this frame, on the {@link System#nanoTime()} clock
+         */
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            framePending = false;
+            if (!running) return;
+
+            long interval = lastFrameTimeNanos == 0 ? 0 : frameTimeNanos - lastFrameTimeNanos;
+            boolean simulating = false;
+            long appliedInputNanos = 0;
+
+            Canvas canvas = holder.lockCanvas();
+            if (canvas != null) {
+                try {
+                    simulating = drawFrame(canvas, frameTimeNanos, interval, vsyncNanos);
+                    appliedInputNanos = frameInputNanos;
+                } finally {
+                    holder.unlockCanvasAndPost(canvas);
+                }
+            }
+            if (appliedInputNanos != 0) {
+                recordInputLatency(System.nanoTime() - appliedInputNanos);
+            }
+
+            // Idle time is not a frame: restart the clock when simulation resumes.
+            lastFrameTimeNanos = simulating ? frameTimeNanos : 0;
+            if (simulating) scheduleFrame();
+        }
+    }
+}
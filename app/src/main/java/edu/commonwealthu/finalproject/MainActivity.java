@@ -2,9 +2,11 @@ package edu.commonwealthu.finalproject;
 
 import android.animation.ObjectAnimator;
 import android.animation.ValueAnimator;
-import android.graphics.Rect;
-import android.media.MediaPlayer;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.FrameMetrics;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -13,17 +15,22 @@ import android.view.View;
 import android.view.Window;
 import android.widget.Button;
 import android.widget.FrameLayout;
-import android.widget.ImageButton;
 import android.widget.ImageView;
-import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.android.material.appbar.MaterialToolbar;
 
-import java.util.ArrayList;
-import java.util.List;
+import edu.commonwealthu.finalproject.engine.TraceRecorder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 
 /**
@@ -43,18 +50,15 @@ public class MainActivity extends AppCompatActivity {
     private FrameLayout gameViewContainer;
     private Button startGameButton;
     private SoundManager soundManager;
-    private MediaPlayer mediaPlayer;
+    private SoundDispatcher sounds;
+    private MusicPlayer musicPlayer;
     private ImageView gameIcon;
-    private ImageView startGameIcon;
-    private ImageView topPipe, bottomPipe;
-    private ImageButton play;
-    private TextView score, dialogScore;
-    private Icon gameCharacter;
-    private List<Pipe> pipes = new ArrayList<>();
+    private GameSurfaceView gameSurface;
+    private Background menuBackground;
     private boolean isGameRunning = false;
-    private boolean hasPassed = false;
+    private Window.OnFrameMetricsAvailableListener frameMetricsListener;
+    private final TraceRecorder tracer = new TraceRecorder(1 << 15);
     private int points = 0;
-    private static final int SCREEN_UPDATE_INTERVAL = 17; // ~60 FPS
 
 
     /**
@@ -83,223 +87,103 @@ public class MainActivity extends AppCompatActivity {
         toolbar.setTitleTextAppearance(this, R.style.ToolbarTitleStyle);
         setSupportActionBar(toolbar);
 
-        soundManager = new SoundManager(this);
-        mediaPlayer = MediaPlayer.create(this, R.raw.background_music3);
-        mediaPlayer.setLooping(true);
-        mediaPlayer.start();
+        AssetPreloader preloader = AssetPreloader.getInstance(this);
+        preloader.start(); // no-op when the splash screen already started it
+        soundManager = preloader.getSoundManager();
+        sounds = preloader.getSoundDispatcher();
+        musicPlayer = preloader.getMusicPlayer();
+        musicPlayer.start();
 
         gameViewContainer = findViewById(R.id.gameViewContainer);
         startGameButton = findViewById(R.id.startGameButton);
+        startGameButton.setEnabled(false); // until the sounds and images are resident
+        preloader.whenReady(() -> startGameButton.setEnabled(true), AssetPreloader.GAMEPLAY);
         gameIcon = findViewById(R.id.gameIcon);
-        startGameIcon = findViewById(R.id.startGameIcon);
-        topPipe = findViewById(R.id.top_pipe);
-        bottomPipe = findViewById(R.id.bottom_pipe);
-        score = findViewById(R.id.game_points);
-    }
-
-    /**
-     * Triggers the initial game start animations and prepares the game environment.
-     * Hides menu elements, shows game components, and sets up game loop and touch listeners.
-     */
-    private void startGameAnimations() {
-        gameIcon.setVisibility(View.GONE);
-        startGameButton.setVisibility(View.GONE);
-
-        gameViewContainer.setVisibility(View.VISIBLE);
-        startGameIcon.setVisibility(View.VISIBLE);
-        topPipe.setVisibility(View.VISIBLE);
-        bottomPipe.setVisibility(View.VISIBLE);
-
-        gameCharacter = new Icon(getResources());
-        isGameRunning = true;
-        updatePoints(0);
+        gameSurface = findViewById(R.id.gameSurface);
+        gameSurface.setSoundDispatcher(sounds);
+        gameSurface.setTracer(tracer);
+        sounds.setTracer(tracer);
+        menuBackground = findViewById(R.id.scrollingBackgroundView);
 
+        gameSurface.setGameListener(new GameSurfaceView.GameListener() {
+            @Override
+            public void onPointScored(int newPoints) {
+                points = newPoints;
+            }
 
-        gameViewContainer.post(() -> {
-            if (gameViewContainer.getWidth() > 0 && gameViewContainer.getHeight() > 0) {
-                initializePipes();
-                startGameLoop();
+            @Override
+            public void onGameOver(int finalPoints) {
+                points = finalPoints;
+                saveReplay();
+                handleCollision();
             }
         });
 
         gameViewContainer.setOnTouchListener((v, event) -> {
-            if (event.getAction() == MotionEvent.ACTION_DOWN && isGameRunning) {
-                gameCharacter.jump();
-                soundManager.playPipeSound();
-
-                startGameIcon.setY(gameCharacter.getY());
+            int action = event.getActionMasked();
+            if (action == MotionEvent.ACTION_DOWN || action == MotionEvent.ACTION_POINTER_DOWN) {
+                if (isGameRunning) {
+                    // Event times are uptimeMillis, which shares System.nanoTime's monotonic clock.
+                    gameSurface.jump(event.getEventTime() * 1_000_000L);
+                    sounds.post(SoundDispatcher.PIPE);
+                } else if (action == MotionEvent.ACTION_DOWN) {
+                    handleOverlayTap(event.getX(), event.getY());
+                }
             }
             return true;
         });
     }
 
     /**
-     * Initializes game pipes with predefined spacing across the game screen.
-     * Creates a set of pipes positioned at specific intervals for gameplay.
-     */
-    private void initializePipes() {
-        pipes.clear();
-        final int PIPE_GAP = 425;
-        int screenWidth = gameViewContainer.getWidth();
-        int screenHeight = gameViewContainer.getHeight();
-
-        for (int i = 0; i < 3; i++) {
-            pipes.add(new Pipe(
-                    getResources(),
-                    screenWidth + i * 400,
-                    screenHeight,
-                    screenWidth,
-                    PIPE_GAP
-            ));
-        }
-    }
-
-    /**
-     * Starts the main game loop, updating game character and pipe positions,
-     * and checking for collisions at regular intervals.
+     * Triggers the initial game start animations and prepares the game environment.
+     * Hides menu elements, shows the game surface and starts a game. Also starts
+     * every new game after the first, which only resets the existing world.
      */
-    private void startGameLoop() {
-        startGameIcon.setAlpha(1.0f);
-
-        Runnable gameLoop = new Runnable() {
-            @Override
-            public void run() {
-                if (isGameRunning && startGameIcon.getVisibility() == View.VISIBLE) {
-                    gameCharacter.update();
-
-                    float newY = gameCharacter.getY();
-                    if (Math.abs(startGameIcon.getY() - newY) > 1.0f) {
-                        startGameIcon.setY(newY);
-                    }
-
-                    updatePipes();
-                    checkCollisions();
+    private void startGameAnimations() {
+        gameIcon.setVisibility(View.GONE);
+        startGameButton.setVisibility(View.GONE);
 
-                    if (isGameRunning) {
-                        gameViewContainer.postDelayed(this, SCREEN_UPDATE_INTERVAL);
-                    }
-                }
-            }
-        };
+        gameViewContainer.setVisibility(View.VISIBLE);
+        menuBackground.setAnimating(false); // covered by the game surface
 
-        startGameIcon.setX(100);
-        gameViewContainer.post(gameLoop);
+        isGameRunning = true;
+        points = 0;
+        gameSurface.startGame();
     }
 
     /**
-     * Checks for collisions between the game character and pipes or screen boundaries.
-     * Triggers collision handling if any intersection is detected.
+     * Acts on a tap on the pause or game over screen drawn by the game surface.
+     *
+     * @param x Horizontal position of the tap on the surface
+     * @param y Vertical position of the tap on the surface
      */
-    private void checkCollisions() {
-        Rect iconRect = new Rect(
-                (int) startGameIcon.getX(),
-                (int) startGameIcon.getY(),
-                (int) (startGameIcon.getX() + startGameIcon.getWidth()),
-                (int) (startGameIcon.getY() + startGameIcon.getHeight())
-        );
-
-        if (topPipe.getVisibility() == View.VISIBLE && bottomPipe.getVisibility() == View.VISIBLE) {
-            Rect topPipeRect = new Rect(
-                    (int) topPipe.getX(),
-                    (int) topPipe.getY(),
-                    (int) (topPipe.getX() + topPipe.getWidth()),
-                    (int) (topPipe.getY() + topPipe.getLayoutParams().height)
-            );
-
-            Rect bottomPipeRect = new Rect(
-                    (int) bottomPipe.getX(),
-                    (int) bottomPipe.getY(),
-                    (int) (bottomPipe.getX() + bottomPipe.getWidth()),
-                    (int) (bottomPipe.getY() + bottomPipe.getLayoutParams().height)
-            );
-
-            if (Rect.intersects(iconRect, topPipeRect) ||
-                    Rect.intersects(iconRect, bottomPipeRect)) {
-                handleCollision();
+    private void handleOverlayTap(float x, float y) {
+        int screen = gameSurface.getOverlayScreen();
+        int button = gameSurface.getOverlayButton(x, y);
+        if (button == GameOverlay.BUTTON_PRIMARY) {
+            if (screen == GameOverlay.GAME_OVER) {
+                startGameAnimations();
+            } else {
+                isGameRunning = true;
+                gameSurface.resumeGame();
             }
-        }
-
-        if (startGameIcon.getY() <= 0 ||
-                startGameIcon.getY() + startGameIcon.getHeight() >= gameViewContainer.getHeight()) {
-            handleCollision();
+        } else if (button == GameOverlay.BUTTON_EXIT) {
+            musicPlayer.pause();
+            finish();
         }
     }
 
     /**
-     * Handles game character collision by stopping the game,
-     * playing collision sound, and showing the game over dialog.
+     * Handles game character collision by stopping the game. The game surface
+     * shows the game over screen and triggers the collision sound itself.
      */
     private void handleCollision() {
         if (isGameRunning) {
-            soundManager.playCollisionSound();
             isGameRunning = false;
-
-            startGameIcon.setVisibility(View.GONE);
-            gameViewContainer.setOnTouchListener(null);
-            showDeadDialog();
             points = 0;
         }
     }
 
-    /**
-     * Updates pipe positions, manages pipe recycling, and tracks player's score.
-     * Handles pipe movement, repositioning, and point scoring logic.
-     */
-    private void updatePipes() {
-        for (Pipe pipe : pipes) {
-            pipe.update();
-
-            if (pipe == pipes.get(0)) {
-                topPipe.setX(pipe.getX());
-                topPipe.setY(0);
-                topPipe.getLayoutParams().height = pipe.getTopCollisionShape().height();
-
-                bottomPipe.setX(pipe.getX());
-                Rect bottomRect = pipe.getBottomCollisionShape();
-                bottomPipe.setY(bottomRect.top);
-                bottomPipe.getLayoutParams().height = bottomRect.height();
-
-                float iconX = startGameIcon.getX();
-                float iconY = startGameIcon.getY();
-                float pipeX = pipe.getX();
-
-                boolean inGapVertically = iconY > topPipe.getHeight() &&
-                        iconY + startGameIcon.getHeight() < bottomPipe.getY();
-
-                if (!hasPassed && inGapVertically && iconX > pipeX + topPipe.getWidth()) {
-                    points++;
-                    soundManager.playPointSound();
-                    updatePoints(points);
-                    hasPassed = true;
-                }
-
-                if (pipe.getX() + pipe.getWidth() < 0) {
-                    hasPassed = false;
-                }
-
-                topPipe.requestLayout();
-                bottomPipe.requestLayout();
-            }
-
-            if (pipe.getX() + pipe.getWidth() < 0) {
-                int rightmostX = -1;
-                for (Pipe p : pipes) {
-                    rightmostX = Math.max(rightmostX, p.getX());
-                }
-                pipe.resetPosition(rightmostX + 400);
-            }
-        }
-    }
-
-    /**
-     * Starts the main game view and initializes game components.
-     */
-    private void startGame() {
-        soundManager.playPipeSound();
-        gameViewContainer.setVisibility(View.VISIBLE);
-        startGameButton.setVisibility(View.GONE);
-    }
-
     /**
      * Plays a subtle floating animation for the game icon.
      *
@@ -318,35 +202,29 @@ public class MainActivity extends AppCompatActivity {
         floatAnimator.start();
     }
 
-    /**
-     * Updates the displayed game points on the screen.
-     *
-     * @param p The current points to display
-     */
-    private void updatePoints(int p) {
-        ((TextView)score).setText(String.valueOf(p));
-    }
-
 
     /**
-     * Called when the activity is paused. Stops game and shows pause dialog.
+     * Called when the activity is paused. Stops the game, and the game surface
+     * shows the pause screen until it is tapped.
      */
     @Override
     protected void onPause() {
         super.onPause();
+        menuBackground.setAnimating(false);
         if (isGameRunning) {
-            showPauseDialog();
+            gameSurface.pauseGame();
         }
         isGameRunning = false;
     }
 
     /**
-     * Called when the activity is resumed. Restarts game state.
+     * Called when the activity is resumed. A paused game stays paused until
+     * its pause screen is tapped.
      */
     @Override
     protected void onResume() {
         super.onResume();
-        isGameRunning = true;
+        menuBackground.setAnimating(gameViewContainer.getVisibility() != View.VISIBLE);
     }
 
     /**
@@ -382,10 +260,88 @@ public class MainActivity extends AppCompatActivity {
             showExitDialog();
         } else if (id == R.id.menu_pause_option) {
             onPause();
+        } else if (id == R.id.menu_hud_option) {
+            item.setChecked(!item.isChecked());
+            setHudEnabled(item.isChecked());
+        } else if (id == R.id.menu_trace_option) {
+            item.setChecked(!item.isChecked());
+            setTracing(item.isChecked());
         }
         return super.onOptionsItemSelected(item);
     }
 
+    /**
+     * Shows or hides the performance HUD. While it is shown, the window's
+     * FrameMetrics are forwarded to the game surface as well, since they only
+     * cover the views around it and not the surface itself.
+     *
+     * @param enabled Whether the HUD is shown
+     */
+    private void setHudEnabled(boolean enabled) {
+        gameSurface.setHudEnabled(enabled);
+        if (enabled && frameMetricsListener == null) {
+            long vsyncNanos = (long) (1e9 / getWindowManager().getDefaultDisplay().getRefreshRate());
+            frameMetricsListener = (window, metrics, dropped) ->
+                    gameSurface.recordUiFrame(metrics.getMetric(FrameMetrics.TOTAL_DURATION), vsyncNanos);
+            getWindow().addOnFrameMetricsAvailableListener(frameMetricsListener,
+                    new Handler(Looper.getMainLooper()));
+        } else if (!enabled && frameMetricsListener != null) {
+            getWindow().removeOnFrameMetricsAvailableListener(frameMetricsListener);
+            frameMetricsListener = null;
+        }
+    }
+
+    /**
+     * Saves the replay of the game that just ended to the app's files directory,
+     * so it can be attached to a bug report and re-simulated offline.
+     */
+    private void saveReplay() {
+        byte[] bytes = gameSurface.getReplayBytes();
+        if (bytes == null) return;
+        File file = new File(getFilesDir(), "last-run.replay");
+        new Thread(() -> {
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(bytes);
+            } catch (IOException e) {
+                Log.e("MainActivity", "Error: replay could not be saved.", e);
+            }
+        }, "ReplaySave").start();
+    }
+
+    /**
+     * Starts recording a trace of the game loop, or stops and exports it. The
+     * trace is written to the app's files directory as a binary log and as
+     * Chrome trace JSON, which opens in Perfetto or chrome://tracing.
+     *
+     * @param enabled Whether to record
+     */
+    private void setTracing(boolean enabled) {
+        if (enabled) {
+            tracer.clear();
+            tracer.setEnabled(true);
+            return;
+        }
+        tracer.setEnabled(false);
+        String name = "trace-" + System.currentTimeMillis();
+        File binary = new File(getFilesDir(), name + ".bin");
+        File json = new File(getFilesDir(), name + ".json");
+        new Thread(() -> {
+            boolean saved;
+            try (FileOutputStream out = new FileOutputStream(binary);
+                 Writer writer = new OutputStreamWriter(new FileOutputStream(json), StandardCharsets.UTF_8)) {
+                tracer.writeBinary(out);
+                tracer.writeChromeTrace(writer);
+                saved = true;
+            } catch (IOException e) {
+                Log.e("MainActivity", "Error: trace could not be saved.", e);
+                saved = false;
+            }
+            String message = saved ? getString(R.string.trace_saved, json.getAbsolutePath())
+                    : getString(R.string.trace_failed);
+            runOnUiThread(() -> Toast.makeText(this, message, Toast.LENGTH_LONG).show());
+        }, "TraceExport").start();
+    }
+
     /**
      * Enables and disables sound
      * @param item the menuItem being referenced
@@ -393,10 +349,10 @@ public class MainActivity extends AppCompatActivity {
     private void handleSoundOption(MenuItem item) {
         if(soundManager.isSoundEnabled()) {
             item.setIcon(R.drawable.no_sound);
-            mediaPlayer.pause();
+            musicPlayer.pause();
         } else {
             item.setIcon(R.drawable.sound);
-            mediaPlayer.start();
+            musicPlayer.start();
         }
         soundManager.toggleSoundEnabled();
     }
@@ -413,7 +369,7 @@ public class MainActivity extends AppCompatActivity {
         builder.setView(dialogView)
                 .setNegativeButton(android.R.string.no, null)
                 .setPositiveButton(android.R.string.yes, (v, n) -> {
-                    mediaPlayer.stop();
+                    musicPlayer.pause();
                     finish();
                 });
         AlertDialog dialog = builder.create();
@@ -426,67 +382,4 @@ public class MainActivity extends AppCompatActivity {
         dialog.setCanceledOnTouchOutside(false);
     }
 
-    /**
-     * Shows an exit dialog asking if the user wants to exit (if so, app terminates)
-     */
-    private void showDeadDialog() {
-        LayoutInflater inflater = getLayoutInflater();
-        View dialogView = inflater.inflate(R.layout.dead_dialog, null);
-
-        dialogScore = dialogView.findViewById(R.id.dialog_game_points);
-        dialogScore.setText(String.valueOf(points));
-
-        AlertDialog.Builder builder = new AlertDialog.Builder(this);
-        builder.setView(dialogView)
-                .setNegativeButton(R.string.exit_game, (v, n) -> {
-                    mediaPlayer.stop();
-                    finish();
-                })
-                .setPositiveButton(R.string.new_game, (v, n) -> startGameAnimations());
-        AlertDialog dialog = builder.create();
-        dialog.show();
-
-        Window window = dialog.getWindow();
-        if (window != null) {
-            window.setBackgroundDrawableResource(android.R.color.holo_purple);
-        }
-        dialog.setCanceledOnTouchOutside(false);
-    }
-
-    /**
-     * Shows a pause dialog that lets user resume playing with a play button
-     */
-    private void showPauseDialog() {
-        LayoutInflater inflater = getLayoutInflater();
-        View dialogView = inflater.inflate(R.layout.pause_dialog, null);
-
-        AlertDialog.Builder builder = new AlertDialog.Builder(this);
-        builder.setView(dialogView);
-        AlertDialog dialog = builder.create();
-        play = dialogView.findViewById(R.id.play_button);
-        dialog.show();
-        play.setOnClickListener(v -> {
-            dialog.dismiss();
-
-            // Restart the game loop
-            isGameRunning = true;
-            startGameLoop();
-
-            gameViewContainer.setOnTouchListener((v1, event) -> {
-                if (event.getAction() == MotionEvent.ACTION_DOWN && isGameRunning) {
-                    gameCharacter.jump();
-                    soundManager.playPipeSound();
-                    startGameIcon.setY(gameCharacter.getY());
-                }
-                return true;
-            });
-        });
-
-        Window window = dialog.getWindow();
-        if (window != null) {
-            window.setBackgroundDrawableResource(android.R.color.holo_purple);
-        }
-        dialog.setCanceledOnTouchOutside(false);
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package edu.commonwealthu.finalproject;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.util.Log;
+
+import java.io.IOException;
+
+/**
+ * Streams the looping background music. The track is prepared asynchronously,
+ * so creating the player never blocks the calling thread; a call to
+ * {@link #start()} before preparation finishes starts playback once it does.
+ *
+ * @author Jacob Leonardo
+ */
+public class MusicPlayer {
+    private final MediaPlayer mediaPlayer = new MediaPlayer();
+    private boolean prepared = false;
+    private boolean playRequested = false;
+    private boolean released = false;
+
+    /**
+     * Starts preparing a raw music resource for looping playback.
+     *
+     * @param context Context used to open the resource
+     * @param resId Raw resource ID of the track
+     * @param onPrepared Called once the track can play, or null
+     */
+    public MusicPlayer(Context context, int resId, Runnable onPrepared) {
+        mediaPlayer.setAudioAttributes(new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_GAME)
+                .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+                .build());
+        mediaPlayer.setLooping(true);
+        mediaPlayer.setOnPreparedListener(mp -> {
+            synchronized (this) {
+                prepared = true;
+                if (playRequested && !released) {
+                    mediaPlayer.start();
+                }
+            }
+            if (onPrepared != null) onPrepared.run();
+        });
+
+        try (AssetFileDescriptor afd = context.getResources().openRawResourceFd(resId)) {
+            mediaPlayer.setDataSource(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength());
+            mediaPlayer.prepareAsync();
+        } catch (IOException e) {
+            Log.e("MusicPlayer", "Error: music resource could not be opened.", e);
+        }
+    }
+
+    /** @return Whether the track is prepared and can start immediately */
+    public synchronized boolean isPrepared() {
+        return prepared;
+    }
+
+    /**
+     * Starts or resumes the music, or remembers to once it is prepared.
+     */
+    public synchronized void start() {
+        playRequested = true;
+        if (prepared && !released && !mediaPlayer.isPlaying()) {
+            mediaPlayer.start();
+        }
+    }
+
+    /**
+     * Pauses the music.
+     */
+    public synchronized void pause() {
+        playRequested = false;
+        if (prepared && !released && mediaPlayer.isPlaying()) {
+            mediaPlayer.pause();
+        }
+    }
+
+    /**
+     * Stops the music and frees the player. It cannot be started again.
+     */
+    public synchronized void release() {
+        playRequested = false;
+        if (!released) {
+            released = true;
+            mediaPlayer.release();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package edu.commonwealthu.finalproject;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import edu.commonwealthu.finalproject.engine.ObstacleRing;
+import edu.commonwealthu.finalproject.engine.Pipe;
+
+/**
+ * Draws every pipe in play in one pass over the {@link ObstacleRing}, using
+ * one shared sprite for the bottom pipes and its flipped copy for the top ones.
+ *
+ * Only what is on screen is drawn. The ring is sorted from left to right, so
+ * a binary search finds the first pipe that reaches onto the screen and the
+ * pass stops at the first pipe past its right edge; pipes waiting off screen
+ * cost nothing. Each sprite is cropped to the rows inside the screen as well,
+ * so a pipe rasterized at display height never overdraws past the surface.
+ *
+ * Not thread-safe: use from the render thread only. Drawing allocates nothing.
+ *
+ * @author Jacob Leonardo
+ */
+public final class ObstacleRenderer {
+    private final Rect source = new Rect();
+    private final RectF destination = new RectF();
+    private Bitmap topSprite, bottomSprite;
+    private int drawn = 0;
+
+    /**
+     * @param top Sprite of the top pipes, its bottom edge on the gap
+     * @param bottom Sprite of the bottom pipes, its top edge on the gap
+     */
+    public void setSprites(Bitmap top, Bitmap bottom) {
+        this.topSprite = top;
+        this.bottomSprite = bottom;
+    }
+
+    /**
+     * Draws the pipes that are on screen.
+     *
+     * @param canvas Canvas to draw on
+     * @param pipes Pipes in play
+     * @param alpha Fraction of a step elapsed since the last update, used for interpolation
+     * @param width Width of the screen
+     * @param height Height of the screen
+     * @param paint Paint to draw the sprites with
+     */
+    public void draw(Canvas canvas, ObstacleRing pipes, float alpha, int width, int height, Paint paint) {
+        drawn = 0;
+        if (topSprite == null || bottomSprite == null) return;
+
+        // Pipes are drawn at their interpolated position, which lies this far
+        // right of the simulated one that the ring's search works on.
+        float renderOffset = pipes.getScroll() - pipes.getRenderScroll(alpha);
+        for (int i = pipes.firstEndingAfter(-renderOffset); i < pipes.size(); i++) {
+            Pipe pipe = pipes.get(i);
+            float x = pipe.getRenderX(alpha);
+            if (x >= width) break; // every later pipe is further right
+
+            drawClipped(canvas, topSprite, x, pipe.getGapTop() - topSprite.getHeight(), height, paint);
+            drawClipped(canvas, bottomSprite, x, pipe.getGapBottom(), height, paint);
+            drawn++;
+        }
+    }
+
+    /**
+     * Draws the rows of a sprite that fall between the top and bottom of the screen.
+     *
+     * @param canvas Canvas to draw on
+     * @param sprite Sprite to draw
+     * @param x Left edge of the sprite
+     * @param y Top edge of the sprite, may be above the screen
+     * @param height Height of the screen
+     * @param paint Paint to draw the sprite with
+     */
+    private void drawClipped(Canvas canvas, Bitmap sprite, float x, int y, int height, Paint paint) {
+        int first = Math.max(0, -y);
+        int last = Math.min(sprite.getHeight(), height - y);
+        if (first >= last) return;
+        source.set(0, first, sprite.getWidth(), last);
+        destination.set(x, y + first, x + sprite.getWidth(), y + last);
+        canvas.drawBitmap(sprite, source, destination, paint);
+    }
+
+    /** @return Number of pipes drawn by the last {@link #draw} */
+    public int getDrawnCount() {
+        return drawn;
+    }
+}
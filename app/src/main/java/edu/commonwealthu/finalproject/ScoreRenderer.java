@@ -0,0 +1,100 @@
+package edu.commonwealthu.finalproject;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+
+import edu.commonwealthu.finalproject.engine.ScoreDigits;
+
+/**
+ * Draws a score straight from an int with a bitmap font. The digits 0 to 9
+ * are rendered once into an atlas; after that a score is a few bitmap copies
+ * from the atlas, with no String, no text shaping and no view involved.
+ *
+ * Each digit's cell is padded on both sides so glyphs that reach past their
+ * advance are not cut off; digits are placed by their advance as the font
+ * would place them. Not thread-safe: use from the render thread only.
+ *
+ * @author Jacob Leonardo
+ */
+public final class ScoreRenderer {
+    private static final String DIGITS = "0123456789";
+
+    private final Bitmap atlas;
+    private final int[] cellLeft = new int[10];
+    private final int[] cellWidth = new int[10];
+    private final float[] advance = new float[10];
+    private final int padding;
+    private final int height;
+    private final ScoreDigits digits = new ScoreDigits();
+    private final Rect source = new Rect();
+    private final RectF destination = new RectF();
+
+    /**
+     * Renders the digit atlas.
+     *
+     * @param typeface Font of the digits, or null for the default font
+     * @param textSize Text size in pixels
+     * @param color Color of the digits
+     */
+    public ScoreRenderer(Typeface typeface, float textSize, int color) {
+        Paint text = new Paint(Paint.ANTI_ALIAS_FLAG);
+        text.setTypeface(typeface);
+        text.setTextSize(textSize);
+        text.setColor(color);
+        Paint.FontMetricsInt metrics = text.getFontMetricsInt();
+        padding = (int) Math.ceil(textSize / 8);
+        height = metrics.descent - metrics.ascent;
+
+        int x = 0;
+        for (int d = 0; d < 10; d++) {
+            advance[d] = text.measureText(DIGITS, d, d + 1);
+            cellLeft[d] = x;
+            cellWidth[d] = (int) Math.ceil(advance[d]) + 2 * padding;
+            x += cellWidth[d];
+        }
+
+        atlas = Bitmap.createBitmap(x, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(atlas);
+        for (int d = 0; d < 10; d++) {
+            canvas.drawText(DIGITS, d, d + 1, cellLeft[d] + padding, -metrics.ascent, text);
+        }
+        atlas.prepareToDraw();
+    }
+
+    /**
+     * Draws a score centered on a position.
+     *
+     * @param canvas Canvas to draw on
+     * @param score Non-negative score
+     * @param centerX Horizontal center of the score
+     * @param top Top of the digits' line
+     * @param paint Paint to copy the glyphs with
+     */
+    public void draw(Canvas canvas, int score, float centerX, float top, Paint paint) {
+        digits.set(score);
+        char[] chars = digits.chars();
+        int length = digits.length();
+
+        float width = 0;
+        for (int i = 0; i < length; i++) {
+            width += advance[chars[i] - '0'];
+        }
+        float x = centerX - width / 2;
+        for (int i = 0; i < length; i++) {
+            int d = chars[i] - '0';
+            source.set(cellLeft[d], 0, cellLeft[d] + cellWidth[d], height);
+            destination.set(x - padding, top, x - padding + cellWidth[d], top + height);
+            canvas.drawBitmap(atlas, source, destination, paint);
+            x += advance[d];
+        }
+    }
+
+    /** @return Height of a line of digits in pixels */
+    public int getHeight() {
+        return height;
+    }
+}
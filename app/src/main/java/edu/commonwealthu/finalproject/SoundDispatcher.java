@@ -0,0 +1,156 @@
+package edu.commonwealthu.finalproject;
+
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.commonwealthu.finalproject.engine.TraceRecorder;
+
+/**
+ * Plays sound effects on a dedicated audio thread so that the threads that
+ * trigger them (the UI thread on touch, the render thread on a point or a
+ * collision) never pay for {@code SoundPool.play}.
+ *
+ * Triggering an effect claims its slot by storing the trigger time with a
+ * single compare-and-set, then sets its bit in an atomic mailbox and unparks
+ * the audio thread; no lock is taken and nothing is allocated. A slot that is
+ * already claimed means the effect is queued, so several triggers of the same
+ * effect before the audio thread plays it (e.g. within one frame) are
+ * coalesced into a single play. The audio thread swaps the mailbox out in one
+ * step and frees each set effect's slot as it plays it.
+ *
+ * Because the time is stored before the bit is set, a play always finds the
+ * time of the trigger it serves, which gives the trigger-to-play latency; the
+ * average and the worst case are kept for {@link #getAverageLatencyNanos()}
+ * and {@link #getMaxLatencyNanos()}. A slot holding 0 is free, so a trigger
+ * never stores 0 as its time.
+ *
+ * @author Jacob Leonardo
+ */
+public final class SoundDispatcher {
+    public static final int PIPE = 0;
+    public static final int POINT = 1;
+    public static final int COLLISION = 2;
+    private static final int EFFECT_COUNT = 3;
+    private static final float LATENCY_SMOOTHING = 0.1f;
+
+    private final SoundManager soundManager;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLongArray triggeredAt = new AtomicLongArray(EFFECT_COUNT);
+    private final Thread audioThread;
+    private volatile boolean running = true;
+    private volatile TraceRecorder tracer;
+    private volatile float averageLatencyNanos = 0f;
+    private volatile long maxLatencyNanos = 0;
+    private volatile int played = 0;
+
+    /**
+     * Creates the dispatcher and starts its audio thread.
+     *
+     * @param soundManager Sound manager that plays the effects
+     */
+    public SoundDispatcher(SoundManager soundManager) {
+        this.soundManager = soundManager;
+        audioThread = new Thread(this::drainLoop, "SoundDispatcher");
+        audioThread.setDaemon(true);
+        audioThread.start();
+    }
+
+    /**
+     * @param tracer Recorder for the time spent playing effects, or null
+     */
+    public void setTracer(TraceRecorder tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Queues an effect to be played by the audio thread. Safe to call from any
+     * thread; returns immediately.
+     *
+     * @param effect One of {@link #PIPE}, {@link #POINT} or {@link #COLLISION}
+     */
+    public void post(int effect) {
+        long now = System.nanoTime();
+        if (now == 0) now = 1; // 0 marks a free slot
+        if (!triggeredAt.compareAndSet(effect, 0, now)) return; // already queued, coalesce
+        int bit = 1 << effect;
+        int previous;
+        do {
+            previous = pending.get();
+        } while (!pending.compareAndSet(previous, previous | bit));
+        LockSupport.unpark(audioThread);
+    }
+
+    /**
+     * Waits for queued effects and plays them until the dispatcher is shut down.
+     */
+    private void drainLoop() {
+        while (running) {
+            int effects = pending.getAndSet(0);
+            if (effects == 0) {
+                LockSupport.park(this);
+                continue;
+            }
+            // Highest priority first, so a collision is not delayed by the others.
+            for (int effect = EFFECT_COUNT - 1; effect >= 0; effect--) {
+                if ((effects & (1 << effect)) != 0) {
+                    play(effect);
+                }
+            }
+        }
+    }
+
+    /**
+     * Frees an effect's slot, plays it and records how long it waited since it
+     * was triggered.
+     *
+     * @param effect Effect to play
+     */
+    private void play(int effect) {
+        long start = triggeredAt.getAndSet(effect, 0);
+        if (start == 0) return; // no trigger waiting: nothing to play and no sample
+        TraceRecorder trace = tracer;
+        long traceStart = trace != null ? trace.begin() : 0;
+        switch (effect) {
+            case PIPE:
+                soundManager.playPipeSound();
+                break;
+            case POINT:
+                soundManager.playPointSound();
+                break;
+            case COLLISION:
+                soundManager.playCollisionSound();
+                break;
+            default:
+                return;
+        }
+        if (traceStart != 0) trace.end(TraceRecorder.SOUND, traceStart);
+        long latency = System.nanoTime() - start;
+        averageLatencyNanos += (latency - averageLatencyNanos) * LATENCY_SMOOTHING;
+        if (latency > maxLatencyNanos) maxLatencyNanos = latency;
+        if (++played % 100 == 0) {
+            Log.d("SoundDispatcher", "Trigger-to-play latency avg "
+                    + (long) averageLatencyNanos / 1000 + " us, max " + maxLatencyNanos / 1000 + " us");
+        }
+    }
+
+    /** @return Smoothed time from trigger to {@code SoundPool.play}, in nanoseconds */
+    public float getAverageLatencyNanos() {
+        return averageLatencyNanos;
+    }
+
+    /** @return Longest time from trigger to {@code SoundPool.play} seen so far, in nanoseconds */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * Stops the audio thread. Effects posted afterwards are ignored.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(audioThread);
+    }
+}
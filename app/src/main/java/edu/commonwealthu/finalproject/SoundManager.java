@@ -3,19 +3,36 @@ package edu.commonwealthu.finalproject;
 import android.content.Context;
 import android.media.AudioAttributes;
 import android.media.SoundPool;
+import android.util.Log;
+import android.util.SparseBooleanArray;
 
 /**
  * Provides game-related sound effects to an activity.
+ * SoundPool decodes effects asynchronously; each effect is tracked until its
+ * load completes, so callers can wait for {@link #setOnLoadedListener} before
+ * relying on the sounds.
+ *
+ * Effects are mixed on several streams so that a point sound no longer cuts
+ * off a jump. Each effect has a priority; when every stream is busy, SoundPool
+ * steals the voice of the lowest-priority (then oldest) stream, so the
+ * collision always gets through. Rapid repeats of an effect inside its minimum
+ * interval are dropped, and the jump restarts its single voice instead of
+ * stacking copies. The music is not loaded here: {@link MusicPlayer} streams it
+ * rather than keeping the whole decoded track in memory.
  *
  * @author Jacob Leonardo
  */
 public class SoundManager {
+    private static final int MAX_STREAMS = 4;
+
     private SoundPool soundPool;
-    private boolean soundEnabled = true;
-    private final int thruPipe; // sound effect when going through a pipe
-    private final int music; // background music
-    private final int point; // point scored
-    private final int collision; // contact collision
+    private volatile boolean soundEnabled = true;
+    private final Effect thruPipe; // sound effect when going through a pipe
+    private final Effect point; // point scored
+    private final Effect collision; // contact collision
+    private final SparseBooleanArray loaded = new SparseBooleanArray();
+    private int pendingLoads;
+    private Runnable onLoaded;
 
     /**
      * Initializes a new sound manager for a given context.
@@ -27,13 +44,84 @@ public class SoundManager {
                 .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
                 .build();
 
-        soundPool = new SoundPool.Builder().setMaxStreams(1)
+        soundPool = new SoundPool.Builder().setMaxStreams(MAX_STREAMS)
                 .setAudioAttributes(audioAttributes).build();
+        soundPool.setOnLoadCompleteListener((pool, sampleId, status) -> onSampleLoaded(sampleId, status));
+
+        synchronized (this) {
+            pendingLoads = 3;
+        }
+        thruPipe = new Effect(soundPool.load(context, R.raw.through_pipe, 1), 0, 60, true);
+        point = new Effect(soundPool.load(context, R.raw.point, 1), 1, 0, false);
+        collision = new Effect(soundPool.load(context, R.raw.collision, 1), 2, 250, true);
+    }
+
+    /**
+     * A loaded sound effect and the rules for mixing it.
+     */
+    private static final class Effect {
+        final int sampleId;
+        final int priority; // higher wins a stream when all are busy
+        final long minIntervalNanos; // repeats closer together are dropped
+        final boolean singleVoice; // a repeat restarts the effect instead of layering
+        long lastPlayedNanos = Long.MIN_VALUE / 2;
+        int lastStreamId = 0;
+
+        /**
+         * @param sampleId SoundPool sample ID
+         * @param priority Stream priority
+         * @param minIntervalMillis Minimum time between two plays
+         * @param singleVoice Whether only one instance may sound at a time
+         */
+        Effect(int sampleId, int priority, long minIntervalMillis, boolean singleVoice) {
+            this.sampleId = sampleId;
+            this.priority = priority;
+            this.minIntervalNanos = minIntervalMillis * 1_000_000L;
+            this.singleVoice = singleVoice;
+        }
+    }
+
+    /**
+     * Records a finished sample load and notifies the listener once all are done.
+     *
+     * @param sampleId ID of the loaded sample
+     * @param status 0 on success
+     */
+    private void onSampleLoaded(int sampleId, int status) {
+        Runnable callback = null;
+        synchronized (this) {
+            if (status == 0) {
+                loaded.put(sampleId, true);
+            } else {
+                Log.e("SoundManager", "Error: sound " + sampleId + " failed to load (" + status + ").");
+            }
+            if (--pendingLoads == 0) {
+                callback = onLoaded;
+                onLoaded = null;
+            }
+        }
+        if (callback != null) callback.run();
+    }
 
-        thruPipe = soundPool.load(context, R.raw.through_pipe, 1);
-        music = soundPool.load(context, R.raw.background_music, 1);
-        point = soundPool.load(context, R.raw.point, 1);
-        collision = soundPool.load(context, R.raw.collision, 1);
+    /**
+     * Runs a callback once every sound has finished loading, immediately if
+     * they already have.
+     *
+     * @param callback Code to run when loading is done
+     */
+    public void setOnLoadedListener(Runnable callback) {
+        synchronized (this) {
+            if (pendingLoads > 0) {
+                onLoaded = callback;
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /** @return Whether every sound has finished loading */
+    public synchronized boolean isLoaded() {
+        return pendingLoads == 0;
     }
 
     /**
@@ -69,11 +157,20 @@ public class SoundManager {
 
 
     /**
-     * Plays a sound specified by its resource ID.
+     * Plays an effect if it has loaded and was not played too recently.
+     *
+     * @param effect Effect to play
      */
-    private void play(int id) {
-        if (soundEnabled && soundPool != null) {
-            soundPool.play(id, 1, 1, 0, 0, 1);
+    private synchronized void play(Effect effect) {
+        if (!soundEnabled || soundPool == null || !loaded.get(effect.sampleId)) return;
+
+        long now = System.nanoTime();
+        if (now - effect.lastPlayedNanos < effect.minIntervalNanos) return;
+        effect.lastPlayedNanos = now;
+
+        if (effect.singleVoice && effect.lastStreamId != 0) {
+            soundPool.stop(effect.lastStreamId);
         }
+        effect.lastStreamId = soundPool.play(effect.sampleId, 1, 1, effect.priority, 0, 1);
     }
 }
@@ -3,6 +3,8 @@ package edu.commonwealthu.finalproject;
 import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
 import android.widget.ImageView;
@@ -12,16 +14,23 @@ import androidx.appcompat.app.AppCompatActivity;
 
 /**
  * Splash screen activity that displays a logo and text with animations
- * before transitioning to the main activity of the application.
+ * while the game's assets are loaded, then transitions to the main activity
+ * as soon as the ones gameplay needs are ready. The music may finish preparing
+ * after the transition; it starts playing as soon as it does.
  *
  * @author Jacob Leonardo
  */
 public class SplashActivity extends AppCompatActivity {
-    private static final long SPLASH_DELAY = 5000; // 5 seconds
+    private static final long MIN_DISPLAY_TIME = 1500; // lets the intro animation finish
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable openMainActivity = this::openMainActivity;
+    private long shownAt;
 
     /**
      * Called when the activity is first created. Sets up the splash screen
-     * with logo and text animations, then transitions to the main activity.
+     * with logo and text animations, starts the asset warm-up and transitions
+     * to the main activity once the assets are ready.
      *
      * @param savedInstanceState If non-null, this fragment is being re-constructed
      *                           from a previous saved state
@@ -30,6 +39,10 @@ public class SplashActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
+        shownAt = SystemClock.uptimeMillis();
+
+        AssetPreloader preloader = AssetPreloader.getInstance(this);
+        preloader.start();
 
         ImageView logoView = findViewById(R.id.splash_logo);
         TextView textView = findViewById(R.id.splash_text);
@@ -37,20 +50,35 @@ public class SplashActivity extends AppCompatActivity {
         Animation fadeIn = AnimationUtils.loadAnimation(this, R.anim.fade_in);
         Animation scaleUp = AnimationUtils.loadAnimation(this, R.anim.scale_up);
 
-        fadeIn.setDuration(1500);
-        scaleUp.setDuration(1500);
+        fadeIn.setDuration(MIN_DISPLAY_TIME);
+        scaleUp.setDuration(MIN_DISPLAY_TIME);
 
         logoView.startAnimation(scaleUp);
         textView.startAnimation(fadeIn);
 
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                Intent intent = new Intent(SplashActivity.this, MainActivity.class);
-                startActivity(intent);
-                overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
-                finish();
-            }
-        }, SPLASH_DELAY);
+        preloader.whenReady(() -> {
+            long remaining = MIN_DISPLAY_TIME - (SystemClock.uptimeMillis() - shownAt);
+            handler.postDelayed(openMainActivity, Math.max(0, remaining));
+        }, AssetPreloader.GAMEPLAY);
+    }
+
+    /**
+     * Starts the main activity with a fade, unless this screen was already closed.
+     */
+    private void openMainActivity() {
+        if (isFinishing() || isDestroyed()) return;
+        Intent intent = new Intent(SplashActivity.this, MainActivity.class);
+        startActivity(intent);
+        overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+        finish();
+    }
+
+    /**
+     * Cancels a pending transition if the splash screen goes away first.
+     */
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(openMainActivity);
+        super.onDestroy();
     }
-}
\ No newline at end of file
+}
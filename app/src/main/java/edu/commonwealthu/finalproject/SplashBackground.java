@@ -2,12 +2,12 @@ package edu.commonwealthu.finalproject;
 
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.view.View;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 
@@ -15,15 +15,32 @@ import java.util.Random;
  * Custom View that creates an animated pixelated rain background
  * for the splash screen with randomized blue-toned raindrops.
  *
+ * Drops are stored as a particle system in primitive arrays rather than one
+ * object per drop. Positions are interleaved x/y pairs grouped by colour, so
+ * each colour bucket is drawn with a single {@link Canvas#drawPoints} call using
+ * square caps. Movement is scaled by elapsed time, so the rain falls at the same
+ * speed at any frame rate, and the view can scale to thousands of drops.
+ *
  * @author Jacob Leonardo
  */
 public class SplashBackground extends View {
-    private List<RainDrop> rainDrops;
-    private Paint paint;
-    private Random random;
-    private int width, height;
-    private static final int MAX_DROPS = 100;
+    private static final int DEFAULT_DROPS = 100;
     private static final int DROP_SIZE = 10;
+    private static final int COLOR_BUCKETS = 8;
+    private static final float MIN_SPEED = 720f; // px/s
+    private static final float SPEED_RANGE = 300f; // px/s
+    private static final long MAX_FRAME_MS = 100;
+    private static final float COST_SMOOTHING = 0.05f;
+
+    private final Random random = new Random();
+    private final Paint[] bucketPaints = new Paint[COLOR_BUCKETS];
+    private final int[] bucketStart = new int[COLOR_BUCKETS + 1];
+    private float[] positions = new float[0]; // x0, y0, x1, y1, ... grouped by bucket
+    private float[] speeds = new float[0];
+    private int dropCount = DEFAULT_DROPS;
+    private int width, height;
+    private long lastFrameMillis = 0;
+    private float averageFrameCostNanos = 0f;
 
     /**
      * Constructor for creating SplashBackground programmatically.
@@ -47,13 +64,36 @@ public class SplashBackground extends View {
     }
 
     /**
-     * Initializes background components including raindrop list, paint, and random generator.
+     * Creates one paint per blue shade, drawing points as filled squares.
      */
     private void init() {
-        rainDrops = new ArrayList<>();
-        paint = new Paint();
-        random = new Random();
-        paint.setStyle(Paint.Style.FILL);
+        for (int b = 0; b < COLOR_BUCKETS; b++) {
+            Paint paint = new Paint();
+            paint.setStyle(Paint.Style.FILL);
+            paint.setStrokeWidth(DROP_SIZE);
+            paint.setStrokeCap(Paint.Cap.SQUARE);
+            paint.setColor(getBlueShade(b));
+            bucketPaints[b] = paint;
+        }
+    }
+
+    /**
+     * Changes the number of drops and regenerates the rain.
+     *
+     * @param count Number of drops
+     */
+    public void setDropCount(int count) {
+        dropCount = Math.max(0, count);
+        if (width > 0 && height > 0) {
+            generateRainDrops();
+        }
+    }
+
+    /**
+     * @return Smoothed CPU time spent updating and drawing one frame, in nanoseconds
+     */
+    public float getAverageFrameCostNanos() {
+        return averageFrameCostNanos;
     }
 
     /**
@@ -73,29 +113,36 @@ public class SplashBackground extends View {
     }
 
     /**
-     * Creates a collection of raindrops with random positions and blue shades.
+     * Places drops at random positions and splits them evenly across the colour
+     * buckets, keeping each bucket's drops contiguous in the arrays.
      */
     private void generateRainDrops() {
-        rainDrops.clear();
-        for (int i = 0; i < MAX_DROPS; i++) {
-            RainDrop drop = new RainDrop(
-                    random.nextInt(width),
-                    -random.nextInt(height),
-                    DROP_SIZE,
-                    getRandomBlueShade()
-            );
-            rainDrops.add(drop);
+        if (positions.length != dropCount * 2) {
+            positions = new float[dropCount * 2];
+            speeds = new float[dropCount];
+        }
+
+        for (int b = 0; b <= COLOR_BUCKETS; b++) {
+            bucketStart[b] = (int) ((long) dropCount * b / COLOR_BUCKETS);
+        }
+
+        for (int i = 0; i < dropCount; i++) {
+            positions[2 * i] = random.nextInt(Math.max(1, width));
+            positions[2 * i + 1] = -random.nextInt(Math.max(1, height));
+            speeds[i] = MIN_SPEED + random.nextFloat() * SPEED_RANGE;
         }
+        lastFrameMillis = 0;
     }
 
     /**
-     * Generates a random blue color shade for raindrops.
+     * Generates the blue color shade for a bucket.
      *
-     * @return Randomly generated blue color
+     * @param bucket Bucket index from 0 to {@link #COLOR_BUCKETS} - 1
+     * @return Blue color of that bucket
      */
-    private int getRandomBlueShade() {
-        int blueIntensity = random.nextInt(100) + 100;
-        return android.graphics.Color.rgb(
+    private static int getBlueShade(int bucket) {
+        int blueIntensity = 100 + bucket * 100 / COLOR_BUCKETS;
+        return Color.rgb(
                 50,  // Low red
                 80,  // Low green
                 blueIntensity  // Varied blue
@@ -103,46 +150,70 @@ public class SplashBackground extends View {
     }
 
     /**
-     * Draws and animates raindrops on the canvas.
+     * Moves every drop down by the elapsed time and respawns drops that fell
+     * off the bottom of the view.
+     *
+     * @param seconds Time since the previous frame
+     */
+    private void updateRainDrops(float seconds) {
+        float[] pos = positions;
+        float[] spd = speeds;
+        for (int i = 0; i < dropCount; i++) {
+            int yIndex = 2 * i + 1;
+            pos[yIndex] += spd[i] * seconds;
+            if (pos[yIndex] > height) {
+                pos[yIndex] = -random.nextInt(Math.max(1, height));
+                pos[yIndex - 1] = random.nextInt(Math.max(1, width));
+            }
+        }
+    }
+
+    /**
+     * Advances and draws the raindrops, one draw call per colour bucket, and
+     * schedules the next frame while the view is visible.
      *
      * @param canvas Canvas to draw raindrops on
      */
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        long start = System.nanoTime();
 
-        for (RainDrop drop : rainDrops) {
-            paint.setColor(drop.color);
-
-            canvas.drawRect(
-                    drop.x,
-                    drop.y,
-                    drop.x + DROP_SIZE,
-                    drop.y + DROP_SIZE,
-                    paint
-            );
-
-            drop.y += drop.speed;
+        long now = SystemClock.uptimeMillis();
+        if (lastFrameMillis != 0) {
+            updateRainDrops(Math.min(now - lastFrameMillis, MAX_FRAME_MS) / 1000f);
+        }
+        lastFrameMillis = now;
 
-            if (drop.y > height) {
-                drop.y = -random.nextInt(height);
-                drop.x = random.nextInt(width);
+        for (int b = 0; b < COLOR_BUCKETS; b++) {
+            int first = bucketStart[b];
+            int count = bucketStart[b + 1] - first;
+            if (count > 0) {
+                canvas.drawPoints(positions, first * 2, count * 2, bucketPaints[b]);
             }
         }
 
-        invalidate();
-    }
+        long cost = System.nanoTime() - start;
+        averageFrameCostNanos += (cost - averageFrameCostNanos) * COST_SMOOTHING;
 
-    private static class RainDrop {
-        float x, y;
-        int color;
-        int speed;
+        if (isShown()) {
+            postInvalidateOnAnimation();
+        } else {
+            lastFrameMillis = 0;
+        }
+    }
 
-        RainDrop(float x, float y, int size, int color) {
-            this.x = x;
-            this.y = y;
-            this.color = color;
-            this.speed = size + new Random().nextInt(5) + 2;
+    /**
+     * Restarts the animation when the view becomes visible again.
+     *
+     * @param isVisible Whether this view and all its ancestors are visible
+     */
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        if (isVisible) {
+            lastFrameMillis = 0;
+            postInvalidateOnAnimation();
         }
     }
-}
\ No newline at end of file
+}
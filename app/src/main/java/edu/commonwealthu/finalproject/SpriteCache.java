@@ -0,0 +1,215 @@
+package edu.commonwealthu.finalproject;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.core.content.res.ResourcesCompat;
+
+import edu.commonwealthu.finalproject.engine.CollisionMask;
+
+/**
+ * Process-wide cache of sprites drawn onto the game surface. Each drawable is
+ * rasterized once per (resource, size, orientation) and the resulting bitmap
+ * is shared by everyone who asks for it, so starting a game or spawning an
+ * obstacle is a lookup instead of a decode.
+ *
+ * Works for XML shape, layer-list and vector drawables as well as raster
+ * images, which BitmapFactory cannot do for the former. Least recently used
+ * sprites are evicted once the cache exceeds its byte budget. Cached bitmaps
+ * are shared and must never be recycled by callers.
+ *
+ * The cache also holds each sprite's {@link CollisionMask}, built from its
+ * alpha channel the first time it is asked for. Masks have a byte budget of
+ * their own, a fraction of the sprites', so masks of sizes no longer drawn
+ * are evicted like their sprites.
+ *
+ * @author Jacob Leonardo
+ */
+public final class SpriteCache {
+    private static final int MAX_CACHE_FRACTION = 8; // share of the heap the cache may use
+    private static final int MASK_CACHE_FRACTION = 8; // share of the sprite budget masks may use
+    private static final int MASK_ALPHA_THRESHOLD = 127; // pixels more opaque than this collide
+    private static SpriteCache instance;
+
+    private final LruCache<Key, Bitmap> cache;
+    private final LruCache<Key, CollisionMask> masks;
+
+    /**
+     * @param maxBytes Byte budget of the cache
+     */
+    private SpriteCache(int maxBytes) {
+        cache = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+        masks = new LruCache<Key, CollisionMask>(Math.max(1, maxBytes / MASK_CACHE_FRACTION)) {
+            @Override
+            protected int sizeOf(Key key, CollisionMask mask) {
+                return mask.getByteCount();
+            }
+        };
+    }
+
+    /** @return The shared sprite cache */
+    public static synchronized SpriteCache getInstance() {
+        if (instance == null) {
+            long maxBytes = Runtime.getRuntime().maxMemory() / MAX_CACHE_FRACTION;
+            instance = new SpriteCache((int) Math.min(Integer.MAX_VALUE, maxBytes));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a drawable rasterized at the given size, drawing it on first use.
+     *
+     * @param res Android Resources used to load the drawable
+     * @param resId Resource ID of the drawable
+     * @param width Width of the sprite in pixels
+     * @param height Height of the sprite in pixels
+     * @param flipVertical Whether the sprite is mirrored top to bottom
+     * @return The shared sprite, or null if the drawable could not be loaded
+     */
+    public Bitmap get(Resources res, int resId, int width, int height, boolean flipVertical) {
+        Key key = new Key(resId, width, height, flipVertical);
+        synchronized (cache) {
+            Bitmap sprite = cache.get(key);
+            if (sprite != null) {
+                return sprite;
+            }
+
+            if (flipVertical) {
+                Bitmap upright = get(res, resId, width, height, false);
+                if (upright == null) return null;
+                Matrix matrix = new Matrix();
+                matrix.setScale(1, -1);
+                sprite = Bitmap.createBitmap(upright, 0, 0, width, height, matrix, true);
+            } else {
+                sprite = rasterize(res, resId, width, height);
+                if (sprite == null) return null;
+            }
+            sprite.prepareToDraw();
+            cache.put(key, sprite);
+            return sprite;
+        }
+    }
+
+    /**
+     * Returns the collision mask of a sprite, building it from the sprite's
+     * alpha one row at a time on first use.
+     *
+     * @param res Android Resources used to load the drawable
+     * @param resId Resource ID of the drawable
+     * @param width Width of the sprite in pixels
+     * @param height Height of the sprite in pixels
+     * @param flipVertical Whether the sprite is mirrored top to bottom
+     * @return The shared mask, or null if the drawable could not be loaded
+     */
+    public CollisionMask getMask(Resources res, int resId, int width, int height, boolean flipVertical) {
+        Key key = new Key(resId, width, height, flipVertical);
+        synchronized (cache) {
+            CollisionMask mask = masks.get(key);
+            if (mask != null) {
+                return mask;
+            }
+
+            Bitmap sprite = get(res, resId, width, height, flipVertical);
+            if (sprite == null) return null;
+            mask = new CollisionMask(width, height);
+            int[] row = new int[width];
+            for (int y = 0; y < height; y++) {
+                sprite.getPixels(row, 0, width, 0, y, width, 1);
+                mask.setRow(y, row, 0, MASK_ALPHA_THRESHOLD);
+            }
+            masks.put(key, mask);
+            return mask;
+        }
+    }
+
+    /**
+     * Returns the collision mask of a sprite if it has already been built,
+     * without building it, so it can be looked up on any thread.
+     *
+     * @param resId Resource ID of the drawable
+     * @param width Width of the sprite in pixels
+     * @param height Height of the sprite in pixels
+     * @param flipVertical Whether the sprite is mirrored top to bottom
+     * @return The shared mask, or null if it is not cached
+     */
+    public CollisionMask peekMask(int resId, int width, int height, boolean flipVertical) {
+        synchronized (cache) {
+            return masks.get(new Key(resId, width, height, flipVertical));
+        }
+    }
+
+    /**
+     * Drops every cached sprite and mask, e.g. when the system is low on memory.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.evictAll();
+            masks.evictAll();
+        }
+    }
+
+    /**
+     * Draws a drawable resource into a new bitmap of the given size.
+     *
+     * @param res Android Resources used to load the drawable
+     * @param resId Resource ID of the drawable
+     * @param width Width of the resulting bitmap in pixels
+     * @param height Height of the resulting bitmap in pixels
+     * @return The rasterized bitmap, or null if the drawable could not be loaded
+     */
+    private static Bitmap rasterize(Resources res, int resId, int width, int height) {
+        Drawable drawable = ResourcesCompat.getDrawable(res, resId, null);
+        if (drawable == null || width <= 0 || height <= 0) {
+            Log.e("SpriteCache", "Error: drawable " + resId + " could not be loaded.");
+            return null;
+        }
+
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        drawable.setBounds(0, 0, width, height);
+        drawable.draw(canvas);
+        return bitmap;
+    }
+
+    /**
+     * Identifies one rasterization of a drawable.
+     */
+    private static final class Key {
+        private final int resId, width, height;
+        private final boolean flipVertical;
+
+        Key(int resId, int width, int height, boolean flipVertical) {
+            this.resId = resId;
+            this.width = width;
+            this.height = height;
+            this.flipVertical = flipVertical;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return resId == other.resId && width == other.width
+                    && height == other.height && flipVertical == other.flipVertical;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resId;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            return 31 * result + (flipVertical ? 1 : 0);
+        }
+    }
+}
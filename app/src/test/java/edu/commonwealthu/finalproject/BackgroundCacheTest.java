@@ -0,0 +1,23 @@
+package edu.commonwealthu.finalproject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the background sample size calculation.
+ */
+public class BackgroundCacheTest {
+
+    @Test
+    public void sampleSizeKeepsImageLargerThanTarget() {
+        assertEquals(1, BackgroundCache.calculateInSampleSize(1080, 1920, 1080, 1920));
+        assertEquals(2, BackgroundCache.calculateInSampleSize(4000, 3000, 1080, 1400));
+        assertEquals(4, BackgroundCache.calculateInSampleSize(4000, 6000, 720, 1280));
+    }
+
+    @Test
+    public void sampleSizeIsOneWhenTargetIsLarger() {
+        assertEquals(1, BackgroundCache.calculateInSampleSize(800, 600, 1080, 1920));
+    }
+}
@@ -0,0 +1,141 @@
+package edu.commonwealthu.finalproject;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.PixelFormat;
+import android.media.SoundPool;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.Button;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.shadows.ShadowMediaPlayer;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import edu.commonwealthu.finalproject.engine.BotPolicy;
+import edu.commonwealthu.finalproject.engine.GameWorld;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Robolectric tests that gameplay never asks the view hierarchy for a layout
+ * pass: a game is started from {@link MainActivity} like a player would, then
+ * frames are simulated and drawn while the main looper runs its own frames.
+ *
+ * Robolectric gives a SurfaceView no real surface, so the test reports the
+ * surface size itself and draws each frame through the same method the
+ * render thread uses, on a bitmap canvas.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, qualifiers = "w411dp-h891dp-xxhdpi") // a phone-sized game in dp
+@GraphicsMode(GraphicsMode.Mode.NATIVE) // real font metrics for the score atlas
+public class GameLayoutTest {
+    private static final long FRAME_NANOS = 16_666_667L;
+    private static final long ASSET_TIMEOUT_MILLIS = 10_000;
+
+    private MainActivity activity;
+    private ViewGroup container;
+    private GameSurfaceView gameSurface;
+    private Canvas canvas;
+    private final BotPolicy bot = BotPolicy.gapTracker(60, 0);
+    private final Random random = new Random(1);
+    private long frameTimeNanos = System.nanoTime();
+    private int layoutPasses;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        ShadowMediaPlayer.setMediaInfoProvider(dataSource -> new ShadowMediaPlayer.MediaInfo());
+        activity = Robolectric.buildActivity(MainActivity.class).setup().get();
+        container = activity.findViewById(R.id.gameViewContainer);
+        gameSurface = activity.findViewById(R.id.gameSurface);
+
+        // SoundPool only reports loads when told to under Robolectric.
+        SoundManager soundManager = AssetPreloader.getInstance(activity).getSoundManager();
+        if (!soundManager.isLoaded()) {
+            SoundPool pool = ReflectionHelpers.getField(soundManager, "soundPool");
+            shadowOf(pool).notifyResourceLoaded(R.raw.through_pipe, true);
+            shadowOf(pool).notifyResourceLoaded(R.raw.point, true);
+            shadowOf(pool).notifyResourceLoaded(R.raw.collision, true);
+        }
+
+        Button startGameButton = activity.findViewById(R.id.startGameButton);
+        long deadline = System.currentTimeMillis() + ASSET_TIMEOUT_MILLIS;
+        while (!startGameButton.isEnabled() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10); // images decode on the preloader's threads
+            ShadowLooper.idleMainLooper();
+        }
+        assertTrue("assets did not load", startGameButton.isEnabled());
+        assertTrue(startGameButton.performClick());
+        ShadowLooper.idleMainLooper(16, TimeUnit.MILLISECONDS); // the container's first layout
+
+        int width = gameSurface.getWidth(), height = gameSurface.getHeight();
+        assertTrue(width > 0 && height > 0);
+        gameSurface.surfaceChanged(gameSurface.getHolder(), PixelFormat.RGBA_8888, width, height);
+        canvas = new Canvas(Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888));
+        assertNotNull(gameSurface.getWorld());
+
+        ViewTreeObserver.OnGlobalLayoutListener counter = () -> layoutPasses++;
+        container.getViewTreeObserver().addOnGlobalLayoutListener(counter);
+    }
+
+    /**
+     * Lets the bot decide on a jump, draws one game frame and runs the main
+     * looper for one frame, checking that the world stepped and nothing asked
+     * for a layout.
+     */
+    private void playFrame() {
+        GameWorld world = gameSurface.getWorld();
+        long tick = world.getTick();
+        frameTimeNanos += FRAME_NANOS;
+        if (!world.isGameOver() && bot.shouldJump(world, random)) {
+            gameSurface.jump(frameTimeNanos);
+        }
+        gameSurface.drawFrame(canvas, frameTimeNanos, FRAME_NANOS, FRAME_NANOS);
+        assertTrue(world.getTick() > tick || world.isGameOver());
+        ShadowLooper.idleMainLooper(16, TimeUnit.MILLISECONDS);
+        assertFalse(container.isLayoutRequested());
+    }
+
+    @Test
+    public void gameContainerHoldsOnlyTheSurface() {
+        // Score and obstacles are drawn on the surface, so nothing in the
+        // view tree changes while a game is played.
+        assertEquals(1, container.getChildCount());
+        assertSame(gameSurface, container.getChildAt(0));
+        assertTrue(gameSurface.isGameRunning());
+    }
+
+    @Test
+    public void gameplayFramesDoNotLayout() {
+        GameWorld world = gameSurface.getWorld();
+        for (int frame = 0; frame < 120; frame++) {
+            playFrame();
+        }
+        assertTrue(world.getTick() >= 100);
+        assertEquals(0, layoutPasses);
+    }
+
+    @Test
+    public void scoringDoesNotRequestLayout() {
+        GameWorld world = gameSurface.getWorld();
+        for (int frame = 0; frame < 60 * 30 && world.getPoints() < 3 && !world.isGameOver(); frame++) {
+            playFrame();
+        }
+        assertTrue(world.getPoints() >= 3);
+        // The point events went through the UI thread to the activity.
+        assertEquals(world.getPoints(), (int) ReflectionHelpers.getField(activity, "points"));
+        assertEquals(0, layoutPasses);
+        assertFalse(container.isLayoutRequested());
+    }
+}
@@ -0,0 +1,50 @@
+package edu.commonwealthu.finalproject;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * Robolectric tests for routing taps on the pause and game over screens.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class GameOverlayTest {
+    private static final int WIDTH = 1080, HEIGHT = 1920;
+
+    private GameOverlay overlay;
+
+    @Before
+    public void setUp() {
+        overlay = new GameOverlay(RuntimeEnvironment.getApplication());
+        overlay.layout(WIDTH, HEIGHT, 100);
+    }
+
+    @Test
+    public void gameOverButtonsSitSideBySide() {
+        float left = WIDTH / 2f - 60, right = WIDTH / 2f + 60;
+        int row = -1;
+        for (int y = 0; y < HEIGHT && row < 0; y++) {
+            if (overlay.buttonAt(GameOverlay.GAME_OVER, left, y) == GameOverlay.BUTTON_PRIMARY) row = y;
+        }
+        assertTrue("no play again button", row >= 0);
+        assertEquals(GameOverlay.BUTTON_EXIT, overlay.buttonAt(GameOverlay.GAME_OVER, right, row));
+        assertEquals(GameOverlay.BUTTON_NONE, overlay.buttonAt(GameOverlay.GAME_OVER, WIDTH / 2f, 10));
+    }
+
+    @Test
+    public void pauseScreenResumesAnywhere() {
+        assertEquals(GameOverlay.BUTTON_PRIMARY, overlay.buttonAt(GameOverlay.PAUSED, 5, 5));
+        assertEquals(GameOverlay.BUTTON_PRIMARY, overlay.buttonAt(GameOverlay.PAUSED, WIDTH - 5, HEIGHT - 5));
+    }
+
+    @Test
+    public void noScreenHasNoButtons() {
+        assertEquals(GameOverlay.BUTTON_NONE, overlay.buttonAt(GameOverlay.NONE, WIDTH / 2f, HEIGHT / 2f));
+    }
+}
@@ -0,0 +1,98 @@
+package edu.commonwealthu.finalproject;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.commonwealthu.finalproject.engine.GameConfig;
+import edu.commonwealthu.finalproject.engine.ObstacleRing;
+
+import static org.junit.Assert.*;
+
+/**
+ * Robolectric tests that the obstacle renderer draws exactly the on-screen
+ * part of the on-screen pipes.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class ObstacleRendererTest {
+    private static final int WIDTH = 1080, HEIGHT = 1920;
+
+    /**
+     * Canvas that records the destination of every bitmap drawn on it.
+     */
+    private static final class RecordingCanvas extends Canvas {
+        final List<RectF> drawn = new ArrayList<>();
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+            drawn.add(new RectF(dst));
+        }
+    }
+
+    /**
+     * @param firstX Position of the leftmost pipe
+     * @return A ring of 30 pipes 400 px apart with their gaps at 800
+     */
+    private static ObstacleRing ring(float firstX) {
+        ObstacleRing ring = new ObstacleRing(new GameConfig());
+        ring.reset(30, firstX, () -> 800);
+        return ring;
+    }
+
+    /**
+     * @return A renderer with display-height pipe sprites
+     */
+    private static ObstacleRenderer renderer() {
+        ObstacleRenderer renderer = new ObstacleRenderer();
+        renderer.setSprites(Bitmap.createBitmap(75, HEIGHT, Bitmap.Config.ARGB_8888),
+                Bitmap.createBitmap(75, HEIGHT, Bitmap.Config.ARGB_8888));
+        return renderer;
+    }
+
+    @Test
+    public void drawsOnlyPipesOnScreen() {
+        ObstacleRenderer renderer = renderer();
+        RecordingCanvas canvas = new RecordingCanvas();
+        // Pipes at -450, -50, 350, 750, 1150, ...: only -50 to 750 reach the screen.
+        renderer.draw(canvas, ring(-450f), 1f, WIDTH, HEIGHT, new Paint());
+
+        assertEquals(3, renderer.getDrawnCount());
+        assertEquals(6, canvas.drawn.size());
+        assertEquals(-50f, canvas.drawn.get(0).left, 1e-3f);
+        assertEquals(750f, canvas.drawn.get(4).left, 1e-3f);
+    }
+
+    @Test
+    public void spritesAreCroppedToTheScreen() {
+        ObstacleRenderer renderer = renderer();
+        RecordingCanvas canvas = new RecordingCanvas();
+        renderer.draw(canvas, ring(0f), 1f, WIDTH, HEIGHT, new Paint());
+
+        RectF top = canvas.drawn.get(0);
+        assertEquals(0f, top.top, 1e-3f);
+        assertEquals(800f, top.bottom, 1e-3f);
+        RectF bottom = canvas.drawn.get(1);
+        assertEquals(800f + new GameConfig().getPipeGap(), bottom.top, 1e-3f);
+        assertEquals(HEIGHT, bottom.bottom, 1e-3f);
+    }
+
+    @Test
+    public void drawsNothingWithoutSprites() {
+        ObstacleRenderer renderer = new ObstacleRenderer();
+        RecordingCanvas canvas = new RecordingCanvas();
+        renderer.draw(canvas, ring(0f), 1f, WIDTH, HEIGHT, new Paint());
+        assertEquals(0, renderer.getDrawnCount());
+        assertTrue(canvas.drawn.isEmpty());
+    }
+}
@@ -0,0 +1,69 @@
+package edu.commonwealthu.finalproject;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Robolectric tests that the score renderer copies one atlas cell per digit.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE) // real font metrics for the atlas
+public class ScoreRendererTest {
+
+    /**
+     * Canvas that records every bitmap copy made on it.
+     */
+    private static final class RecordingCanvas extends Canvas {
+        final List<Rect> sources = new ArrayList<>();
+        final List<RectF> destinations = new ArrayList<>();
+        Bitmap bitmap;
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+            this.bitmap = bitmap;
+            sources.add(new Rect(src));
+            destinations.add(new RectF(dst));
+        }
+    }
+
+    @Test
+    public void drawsOneCellPerDigitFromOneAtlas() {
+        ScoreRenderer renderer = new ScoreRenderer(null, 88f, Color.WHITE);
+        RecordingCanvas canvas = new RecordingCanvas();
+        renderer.draw(canvas, 1203, 540f, 100f, new Paint());
+
+        assertEquals(4, canvas.destinations.size());
+        for (int i = 1; i < 4; i++) {
+            assertTrue(canvas.destinations.get(i).left > canvas.destinations.get(i - 1).left);
+        }
+        assertEquals(100f, canvas.destinations.get(0).top, 1e-3f);
+        assertNotEquals(canvas.sources.get(1), canvas.sources.get(2)); // '2' and '0'
+    }
+
+    @Test
+    public void sameDigitUsesSameCell() {
+        ScoreRenderer renderer = new ScoreRenderer(null, 88f, Color.WHITE);
+        RecordingCanvas canvas = new RecordingCanvas();
+        renderer.draw(canvas, 77, 540f, 0f, new Paint());
+
+        assertEquals(2, canvas.sources.size());
+        assertEquals(canvas.sources.get(0), canvas.sources.get(1));
+        assertNotNull(canvas.bitmap);
+    }
+}
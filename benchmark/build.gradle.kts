@@ -0,0 +1,26 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+
+    jmhImplementation(project(":engine"))
+
+}
+
+// Run with ./gradlew :benchmark:jmh; results land in build/results/jmh/results.json.
+// The gc profiler adds gc.alloc.rate.norm, the bytes allocated per operation (tick).
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
@@ -0,0 +1,30 @@
+package edu.commonwealthu.finalproject.benchmark;
+
+import edu.commonwealthu.finalproject.engine.GameConfig;
+
+/**
+ * Shared setups for the benchmarks.
+ *
+ * @author Jacob Leonardo
+ */
+final class BenchmarkWorlds {
+
+    private BenchmarkWorlds() {
+    }
+
+    /**
+     * Builds a config in which the game never ends: gravity is off and every
+     * gap is pinned around the icon, so each tick runs the full update,
+     * recycling and collision path without a game over.
+     *
+     * @param pipeCount Number of pipes in play
+     * @return The config
+     */
+    static GameConfig steadyState(int pipeCount) {
+        GameConfig config = new GameConfig().setPipeCount(pipeCount).setGravity(0f);
+        int halfHeight = config.getScreenHeight() / 2;
+        config.setPipeMargin(halfHeight - config.getPipeGap());
+        config.setIconStart(config.getIconStartX(), halfHeight + 40);
+        return config;
+    }
+}
@@ -0,0 +1,109 @@
+package edu.commonwealthu.finalproject.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.commonwealthu.finalproject.engine.GameConfig;
+import edu.commonwealthu.finalproject.engine.GameWorld;
+import edu.commonwealthu.finalproject.engine.Icon;
+import edu.commonwealthu.finalproject.engine.ObstacleRing;
+import edu.commonwealthu.finalproject.engine.Pipe;
+
+/**
+ * Measures collision tests of the icon against the pipes: the discrete AABB
+ * test and the swept test against every pipe, and the swept test narrowed by
+ * the sorted broad phase as done once per tick. The game no longer uses the
+ * discrete test, so it lives here as the baseline the swept test is held to.
+ *
+ * @author Jacob Leonardo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+    @Param({"3", "30", "300"})
+    public int pipeCount;
+
+    private GameWorld world;
+    private float left, top, right, bottom;
+    private float dx, dy;
+
+    @Setup
+    public void setup() {
+        GameConfig config = BenchmarkWorlds.steadyState(pipeCount);
+        world = new GameWorld(config, 1L);
+        Icon icon = world.getIcon();
+        left = icon.getX();
+        top = icon.getY();
+        right = left + icon.getWidth();
+        bottom = top + icon.getHeight();
+        dx = config.getPipeSpeed() * config.getStepSeconds();
+        dy = 15f;
+    }
+
+    /**
+     * @return Whether any pipe was hit, so the loop is not optimized away
+     */
+    @Benchmark
+    public boolean aabb() {
+        boolean hit = false;
+        for (int i = 0; i < world.getPipeCount(); i++) {
+            hit |= intersects(world.getPipe(i), left, top, right, bottom);
+        }
+        return hit;
+    }
+
+    /**
+     * Tests whether a box overlaps either the top or the bottom pipe at the
+     * end of a step only, as collisions were tested before they were swept.
+     *
+     * @param pipe Pipe to test
+     * @param left Left edge of the box
+     * @param top Top edge of the box
+     * @param right Right edge of the box
+     * @param bottom Bottom edge of the box
+     * @return True if the box touches a pipe
+     */
+    private static boolean intersects(Pipe pipe, float left, float top, float right, float bottom) {
+        float x = pipe.getX();
+        if (right <= x || left >= x + pipe.getWidth()) {
+            return false;
+        }
+        return top < pipe.getGapTop() || bottom > pipe.getGapBottom();
+    }
+
+    /**
+     * @return Whether any pipe was hit, so the loop is not optimized away
+     */
+    @Benchmark
+    public boolean sweptAll() {
+        boolean hit = false;
+        for (int i = 0; i < world.getPipeCount(); i++) {
+            hit |= world.getPipe(i).sweptIntersects(left, top, right, bottom, dx, dy);
+        }
+        return hit;
+    }
+
+    /**
+     * @return Whether a candidate pipe was hit, so the loop is not optimized away
+     */
+    @Benchmark
+    public boolean sweptBroadPhase() {
+        ObstacleRing ring = world.getPipes();
+        boolean hit = false;
+        for (int i = ring.firstEndingAfter(left - dx); i < ring.size(); i++) {
+            Pipe pipe = ring.get(i);
+            if (pipe.getX() >= right) break;
+            hit |= pipe.sweptIntersects(left, top, right, bottom, dx, dy);
+        }
+        return hit;
+    }
+}
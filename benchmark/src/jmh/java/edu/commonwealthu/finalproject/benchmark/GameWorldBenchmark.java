@@ -0,0 +1,45 @@
+package edu.commonwealthu.finalproject.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.commonwealthu.finalproject.engine.GameWorld;
+
+/**
+ * Measures one full simulation tick: icon physics, moving and recycling every
+ * pipe, scoring and collision checks. The reported time is ns/tick, and the gc
+ * profiler's gc.alloc.rate.norm is the bytes allocated per tick.
+ *
+ * @author Jacob Leonardo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameWorldBenchmark {
+    @Param({"3", "30", "300"})
+    public int pipeCount;
+
+    private GameWorld world;
+
+    @Setup
+    public void setup() {
+        world = new GameWorld(BenchmarkWorlds.steadyState(pipeCount), 1L);
+    }
+
+    /**
+     * @return The tick counter, so the step is not optimized away
+     */
+    @Benchmark
+    public long step() {
+        world.step();
+        return world.getTick();
+    }
+}
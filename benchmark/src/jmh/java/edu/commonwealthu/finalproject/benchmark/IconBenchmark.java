@@ -0,0 +1,49 @@
+package edu.commonwealthu.finalproject.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.commonwealthu.finalproject.engine.GameConfig;
+import edu.commonwealthu.finalproject.engine.Icon;
+
+/**
+ * Measures a single physics update of the player's icon.
+ *
+ * @author Jacob Leonardo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IconBenchmark {
+    private Icon icon;
+    private float dt;
+    private int ticks;
+
+    @Setup
+    public void setup() {
+        GameConfig config = new GameConfig();
+        icon = new Icon(config);
+        dt = config.getStepSeconds();
+    }
+
+    /**
+     * One icon update, jumping twice a second so the velocity stays bounded.
+     *
+     * @return The new y-position, so the update is not optimized away
+     */
+    @Benchmark
+    public float update() {
+        if (++ticks % 30 == 0) {
+            icon.jump();
+        }
+        icon.update(dt);
+        return icon.getY();
+    }
+}
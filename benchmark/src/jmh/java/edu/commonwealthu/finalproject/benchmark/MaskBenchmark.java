@@ -0,0 +1,72 @@
+package edu.commonwealthu.finalproject.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.commonwealthu.finalproject.engine.CollisionMask;
+
+/**
+ * Measures the pixel-mask narrow phase at its worst: the icon's box lies fully
+ * inside a pipe's box but no pixels touch, so every overlapping row is scanned.
+ * A near miss against a pipe corner, the common case, scans only a few rows.
+ *
+ * @author Jacob Leonardo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MaskBenchmark {
+    private static final int ICON_SIZE = 75;
+    private static final int PIPE_WIDTH = 160;
+    private static final int PIPE_HEIGHT = 1920;
+
+    private CollisionMask icon, pipe;
+
+    @Setup
+    public void setup() {
+        // A ring-shaped icon around the pipe's hollow, so the boxes overlap
+        // everywhere while the solid pixels never meet.
+        int[] argb = new int[ICON_SIZE * ICON_SIZE];
+        float r = ICON_SIZE / 2f;
+        for (int y = 0; y < ICON_SIZE; y++) {
+            for (int x = 0; x < ICON_SIZE; x++) {
+                float dx = x + 0.5f - r, dy = y + 0.5f - r;
+                float d2 = dx * dx + dy * dy;
+                if (d2 <= r * r && d2 >= (r - 4) * (r - 4)) argb[y * ICON_SIZE + x] = 0xFF000000;
+            }
+        }
+        icon = CollisionMask.fromAlpha(argb, ICON_SIZE, ICON_SIZE, 127);
+
+        // A pipe whose middle columns are hollow where the icon sits.
+        argb = new int[PIPE_WIDTH * PIPE_HEIGHT];
+        for (int y = 0; y < PIPE_HEIGHT; y++) {
+            for (int x = 0; x < PIPE_WIDTH; x++) {
+                if (x < 40 || x >= PIPE_WIDTH - 40) argb[y * PIPE_WIDTH + x] = 0xFF000000;
+            }
+        }
+        pipe = CollisionMask.fromAlpha(argb, PIPE_WIDTH, PIPE_HEIGHT, 127);
+    }
+
+    /**
+     * @return Whether the masks overlap, so the call is not optimized away
+     */
+    @Benchmark
+    public boolean fullOverlapMiss() {
+        return pipe.overlaps(icon, 42, 600);
+    }
+
+    /**
+     * @return Whether the masks overlap, so the call is not optimized away
+     */
+    @Benchmark
+    public boolean cornerHit() {
+        return pipe.overlaps(icon, -60, -60);
+    }
+}
@@ -0,0 +1,65 @@
+package edu.commonwealthu.finalproject.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.commonwealthu.finalproject.engine.GameConfig;
+import edu.commonwealthu.finalproject.engine.ObstacleRing;
+import edu.commonwealthu.finalproject.engine.Pipe;
+
+/**
+ * Measures scrolling and recycling pipes in the obstacle ring, and
+ * resetting a single pipe. The advance cost should not depend on pipeCount.
+ *
+ * @author Jacob Leonardo
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObstacleRingBenchmark {
+    @Param({"3", "30", "300"})
+    public int pipeCount;
+
+    private ObstacleRing ring;
+    private ObstacleRing.GapSource gaps;
+    private float dt;
+    private int gapY;
+
+    @Setup
+    public void setup() {
+        GameConfig config = new GameConfig();
+        ring = new ObstacleRing(config);
+        gaps = () -> gapY = (gapY + 37) & 1023;
+        ring.reset(pipeCount, config.getScreenWidth(), gaps);
+        dt = config.getStepSeconds();
+    }
+
+    /**
+     * One step of scrolling, including recycling the head when it leaves the screen.
+     *
+     * @return The next spawn position, so the step is not optimized away
+     */
+    @Benchmark
+    public float advance() {
+        ring.advance(dt, gaps);
+        return ring.getNextSpawnX();
+    }
+
+    /**
+     * @return The new gap position, so the reset is not optimized away
+     */
+    @Benchmark
+    public int resetPosition() {
+        Pipe pipe = ring.get(0);
+        pipe.resetPosition(pipe.getWorldX(), gaps.nextGapY());
+        return pipe.getGapTop();
+    }
+}
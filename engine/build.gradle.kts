@@ -0,0 +1,28 @@
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+
+    testImplementation(libs.junit)
+
+}
+
+// Verify replays headless: ./gradlew :engine:replay --args="path/to/last-run.replay"
+tasks.register<JavaExec>("replay") {
+    description = "Re-simulates replay files and checks them against their recorded outcome."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("edu.commonwealthu.finalproject.engine.ReplayPlayer")
+}
+
+// Monte Carlo balancing runs: ./gradlew :engine:simulate --args="games=200000 gap=400"
+tasks.register<JavaExec>("simulate") {
+    description = "Plays simulated games in parallel and reports score distribution and throughput."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("edu.commonwealthu.finalproject.engine.MonteCarlo")
+}
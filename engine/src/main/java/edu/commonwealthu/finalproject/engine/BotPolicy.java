@@ -0,0 +1,59 @@
+package edu.commonwealthu.finalproject.engine;
+
+import java.util.Random;
+
+/**
+ * Decides when a simulated player jumps. Called once before every step.
+ *
+ * Policies must keep no state of their own between calls, since one policy is
+ * shared by every thread of a {@link MonteCarlo} run; randomness comes from the
+ * per-game generator passed in, so runs are reproducible.
+ *
+ * @author Jacob Leonardo
+ */
+public interface BotPolicy {
+    /**
+     * @param world World about to step
+     * @param random Generator seeded for this game
+     * @return Whether to jump at this step
+     */
+    boolean shouldJump(GameWorld world, Random random);
+
+    /**
+     * A bot that aims for the next gap: it jumps when it falls to within
+     * {@code margin} pixels of the gap's bottom, give or take {@code noise}
+     * pixels of random error per decision.
+     *
+     * @param margin Distance above the gap bottom at which to jump
+     * @param noise Largest random error added to the margin
+     * @return The policy
+     */
+    static BotPolicy gapTracker(int margin, int noise) {
+        return (world, random) -> {
+            Icon icon = world.getIcon();
+            if (icon.getVelocity() <= 0) return false;
+
+            Pipe next = null;
+            for (int i = 0; i < world.getPipeCount(); i++) {
+                Pipe pipe = world.getPipe(i);
+                if (pipe.getX() + pipe.getWidth() >= icon.getX()) {
+                    next = pipe; // pipes are sorted, so the first one ahead is the next
+                    break;
+                }
+            }
+            float target = next != null ? next.getGapBottom() : world.getConfig().getScreenHeight() / 2f;
+            int error = noise > 0 ? random.nextInt(2 * noise + 1) - noise : 0;
+            return icon.getY() + icon.getHeight() > target - margin + error;
+        };
+    }
+
+    /**
+     * A bot that taps at random.
+     *
+     * @param jumpsPerSecond Average number of taps per second
+     * @return The policy
+     */
+    static BotPolicy random(float jumpsPerSecond) {
+        return (world, random) -> random.nextFloat() < jumpsPerSecond / world.getConfig().getTickRate();
+    }
+}
@@ -0,0 +1,201 @@
+package edu.commonwealthu.finalproject.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Pixel-accurate collision shape of a sprite, stored as one packed bitset row
+ * per pixel row, 64 pixels per {@code long}.
+ *
+ * Masks are built once from a sprite's alpha channel. Testing two masks only
+ * visits the rows where they overlap, and within a row ANDs whole 64-pixel
+ * words, so even a tall pipe against the icon costs a few dozen word
+ * operations. The test is meant as a narrow phase after a bounding-box test
+ * has already passed.
+ *
+ * Masks are saved with replays. Runs of identical rows, such as the body of a
+ * pipe, are stored once with a repeat count, so even a display-height pipe
+ * takes a few hundred bytes.
+ *
+ * @author Jacob Leonardo
+ */
+public final class CollisionMask {
+    private final int width, height;
+    private final int wordsPerRow;
+    private final long[] bits;
+
+    /**
+     * Creates an empty mask.
+     *
+     * @param width Width in pixels
+     * @param height Height in pixels
+     */
+    public CollisionMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Builds a mask from ARGB pixels.
+     *
+     * @param argb Pixels in row-major order
+     * @param width Width in pixels
+     * @param height Height in pixels
+     * @param alphaThreshold Pixels with an alpha above this are solid
+     * @return The mask
+     */
+    public static CollisionMask fromAlpha(int[] argb, int width, int height, int alphaThreshold) {
+        CollisionMask mask = new CollisionMask(width, height);
+        for (int y = 0; y < height; y++) {
+            mask.setRow(y, argb, y * width, alphaThreshold);
+        }
+        return mask;
+    }
+
+    /**
+     * Fills one row from ARGB pixels, so a large sprite can be read a row at a time.
+     *
+     * @param y Row to fill
+     * @param argb Pixels of the row
+     * @param offset Index of the row's first pixel in {@code argb}
+     * @param alphaThreshold Pixels with an alpha above this are solid
+     */
+    public void setRow(int y, int[] argb, int offset, int alphaThreshold) {
+        int base = y * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++) {
+            bits[base + w] = 0L;
+        }
+        for (int x = 0; x < width; x++) {
+            if ((argb[offset + x] >>> 24) > alphaThreshold) {
+                bits[base + (x >>> 6)] |= 1L << (x & 63);
+            }
+        }
+    }
+
+    /**
+     * Saves the mask in its binary form, used by {@link Replay}.
+     *
+     * @param data Stream to write to
+     * @throws IOException If writing fails
+     */
+    void write(DataOutputStream data) throws IOException {
+        data.writeInt(width);
+        data.writeInt(height);
+        int y = 0;
+        while (y < height) {
+            int run = 1;
+            while (y + run < height && sameRows(y, y + run)) run++;
+            data.writeInt(run);
+            for (int w = 0; w < wordsPerRow; w++) {
+                data.writeLong(bits[y * wordsPerRow + w]);
+            }
+            y += run;
+        }
+    }
+
+    /**
+     * Loads a mask saved with {@link #write}.
+     *
+     * @param data Stream to read from
+     * @return The mask
+     * @throws IOException If reading fails or the data is malformed
+     */
+    static CollisionMask read(DataInputStream data) throws IOException {
+        int width = data.readInt();
+        int height = data.readInt();
+        if (width <= 0 || height <= 0 || (long) ((width + 63) >>> 6) * height > Integer.MAX_VALUE) {
+            throw new IOException("Malformed collision mask");
+        }
+        CollisionMask mask = new CollisionMask(width, height);
+        int words = mask.wordsPerRow;
+        int y = 0;
+        while (y < height) {
+            int run = data.readInt();
+            if (run <= 0 || run > height - y) throw new IOException("Malformed collision mask");
+            for (int w = 0; w < words; w++) {
+                mask.bits[y * words + w] = data.readLong();
+            }
+            for (int r = 1; r < run; r++) {
+                System.arraycopy(mask.bits, y * words, mask.bits, (y + r) * words, words);
+            }
+            y += run;
+        }
+        return mask;
+    }
+
+    /**
+     * @param a First row
+     * @param b Second row
+     * @return Whether both rows have the same pixels
+     */
+    private boolean sameRows(int a, int b) {
+        for (int w = 0; w < wordsPerRow; w++) {
+            if (bits[a * wordsPerRow + w] != bits[b * wordsPerRow + w]) return false;
+        }
+        return true;
+    }
+
+    /** @return Width in pixels */
+    public int getWidth() { return width; }
+
+    /** @return Height in pixels */
+    public int getHeight() { return height; }
+
+    /** @return Memory taken by the mask's bits, in bytes */
+    public int getByteCount() { return bits.length * 8; }
+
+    /**
+     * @param x Column
+     * @param y Row
+     * @return Whether the pixel is solid; false outside the mask
+     */
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    /**
+     * Tests whether another mask placed at an offset from this one shares a
+     * solid pixel with it.
+     *
+     * @param other The other mask
+     * @param offsetX Column of this mask where the other mask's left edge lies
+     * @param offsetY Row of this mask where the other mask's top edge lies
+     * @return True if any pixel is solid in both
+     */
+    public boolean overlaps(CollisionMask other, int offsetX, int offsetY) {
+        int firstRow = Math.max(0, offsetY);
+        int lastRow = Math.min(height, offsetY + other.height);
+        int firstColumn = Math.max(0, offsetX);
+        int lastColumn = Math.min(width, offsetX + other.width);
+        if (firstRow >= lastRow || firstColumn >= lastColumn) return false;
+
+        // Word w of this row lines up with bits from words w + wordShift and
+        // w + wordShift + 1 of the other row, shifted right by bitShift.
+        int firstWord = firstColumn >>> 6;
+        int lastWord = (lastColumn - 1) >>> 6;
+        int wordShift = -offsetX >> 6; // floor division, also for negative offsets
+        int bitShift = -offsetX & 63;
+        long[] otherBits = other.bits;
+        int otherWords = other.wordsPerRow;
+        for (int y = firstRow; y < lastRow; y++) {
+            int base = y * wordsPerRow;
+            int otherBase = (y - offsetY) * otherWords;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long word = bits[base + w];
+                if (word == 0) continue;
+                int ow = w + wordShift;
+                long low = ow >= 0 && ow < otherWords ? otherBits[otherBase + ow] : 0L;
+                long aligned = low >>> bitShift;
+                if (bitShift != 0 && ow + 1 >= 0 && ow + 1 < otherWords) {
+                    aligned |= otherBits[otherBase + ow + 1] << (64 - bitShift);
+                }
+                if ((word & aligned) != 0) return true;
+            }
+        }
+        return false;
+    }
+}
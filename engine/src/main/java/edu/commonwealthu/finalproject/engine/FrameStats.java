@@ -0,0 +1,115 @@
+package edu.commonwealthu.finalproject.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of frame times, with running totals of simulation and
+ * draw time and of missed vsyncs.
+ *
+ * Frame times fall into {@link #BUCKET_NANOS}-wide buckets up to
+ * {@link #MAX_TRACKED_NANOS}; longer frames share one overflow bucket. Recording
+ * a frame is a few array and field writes, so it can run on every frame without
+ * allocating, and percentiles are read from the histogram at any time.
+ *
+ * @author Jacob Leonardo
+ */
+public final class FrameStats {
+    /** Width of one histogram bucket. */
+    public static final long BUCKET_NANOS = 250_000L;
+    private static final int BUCKETS = 256;
+    /** Longest frame time with its own bucket. */
+    public static final long MAX_TRACKED_NANOS = BUCKET_NANOS * BUCKETS;
+
+    private final int[] histogram = new int[BUCKETS + 1]; // last bucket is overflow
+    private long frameCount;
+    private long jankCount;
+    private long missedVsyncs;
+    private long totalSimNanos;
+    private long totalDrawNanos;
+    private long maxFrameNanos;
+
+    /**
+     * Counts the vsyncs a frame skipped, rounding its duration to the nearest
+     * whole number of refresh periods so timing jitter is not counted as jank.
+     *
+     * @param frameNanos Time since the previous frame
+     * @param vsyncNanos Display refresh period
+     * @return Number of vsyncs skipped, 0 when on time
+     */
+    public static int missedVsyncs(long frameNanos, long vsyncNanos) {
+        return (int) Math.max(0, (frameNanos + vsyncNanos / 2) / vsyncNanos - 1);
+    }
+
+    /**
+     * Adds one frame.
+     *
+     * @param frameNanos Time since the previous frame
+     * @param simNanos Time spent advancing the simulation this frame
+     * @param drawNanos Time spent drawing this frame
+     * @param missed Number of vsyncs skipped before this frame, 0 when on time
+     */
+    public void record(long frameNanos, long simNanos, long drawNanos, int missed) {
+        int bucket = (int) Math.min(BUCKETS, Math.max(0, frameNanos) / BUCKET_NANOS);
+        histogram[bucket]++;
+        frameCount++;
+        if (missed > 0) {
+            jankCount++;
+            missedVsyncs += missed;
+        }
+        totalSimNanos += simNanos;
+        totalDrawNanos += drawNanos;
+        if (frameNanos > maxFrameNanos) maxFrameNanos = frameNanos;
+    }
+
+    /**
+     * Returns a frame time percentile, rounded up to the end of its bucket.
+     *
+     * @param percentile Fraction between 0 and 1, e.g. 0.95
+     * @return Frame time in nanoseconds that this fraction of frames did not exceed, or 0 without frames
+     */
+    public long percentileNanos(double percentile) {
+        if (frameCount == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile * frameCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= target) return (i + 1) * BUCKET_NANOS;
+        }
+        return maxFrameNanos;
+    }
+
+    /** @return Number of frames recorded */
+    public long getFrameCount() { return frameCount; }
+
+    /** @return Number of frames that came at least one vsync late */
+    public long getJankCount() { return jankCount; }
+
+    /** @return Total number of vsyncs skipped */
+    public long getMissedVsyncs() { return missedVsyncs; }
+
+    /** @return Longest frame time recorded, in nanoseconds */
+    public long getMaxFrameNanos() { return maxFrameNanos; }
+
+    /** @return Mean simulation time per frame, in nanoseconds */
+    public long getAverageSimNanos() {
+        return frameCount == 0 ? 0 : totalSimNanos / frameCount;
+    }
+
+    /** @return Mean draw time per frame, in nanoseconds */
+    public long getAverageDrawNanos() {
+        return frameCount == 0 ? 0 : totalDrawNanos / frameCount;
+    }
+
+    /**
+     * Forgets every recorded frame.
+     */
+    public void reset() {
+        Arrays.fill(histogram, 0);
+        frameCount = 0;
+        jankCount = 0;
+        missedVsyncs = 0;
+        totalSimNanos = 0;
+        totalDrawNanos = 0;
+        maxFrameNanos = 0;
+    }
+}
@@ -0,0 +1,235 @@
+package edu.commonwealthu.finalproject.engine;
+
+/**
+ * Tunable gameplay constants. Distances are in pixels, speeds in pixels per
+ * second and accelerations in pixels per second squared, so the same config
+ * plays identically at any tick rate.
+ *
+ * The defaults are meant for a density of one pixel per dp; a display with
+ * denser pixels {@link #scale(float) scales} them by its density so the game
+ * looks and plays the same size on every phone.
+ *
+ * @author Jacob Leonardo
+ */
+public class GameConfig {
+    private int screenWidth = 1080;
+    private int screenHeight = 1920;
+    private int tickRate = 60; // simulation steps per second
+    private int pipeCount = 3;
+    private int pipeSpacing = 400;
+    private int pipeGap = 425;
+    private int pipeWidth = 75;
+    private int pipeMargin = 100; // minimum distance of a gap from the screen edges
+    private float pipeSpeed = 420f;
+    private float gravity = 1800f;
+    private float jumpVelocity = -900f;
+    private int iconSize = 75;
+    private float iconStartX = 100f;
+    private float iconStartY = 300f;
+
+    /**
+     * Copies every constant from another config.
+     *
+     * @param other Config to copy
+     * @return This config
+     */
+    public GameConfig copyFrom(GameConfig other) {
+        screenWidth = other.screenWidth;
+        screenHeight = other.screenHeight;
+        tickRate = other.tickRate;
+        pipeCount = other.pipeCount;
+        pipeSpacing = other.pipeSpacing;
+        pipeGap = other.pipeGap;
+        pipeWidth = other.pipeWidth;
+        pipeMargin = other.pipeMargin;
+        pipeSpeed = other.pipeSpeed;
+        gravity = other.gravity;
+        jumpVelocity = other.jumpVelocity;
+        iconSize = other.iconSize;
+        iconStartX = other.iconStartX;
+        iconStartY = other.iconStartY;
+        return this;
+    }
+
+    /**
+     * Multiplies every distance, speed and acceleration by a factor, such as a
+     * display's density. The screen size, tick rate and pipe count are kept.
+     *
+     * @param factor Pixels per unit of the current values
+     * @return This config
+     */
+    public GameConfig scale(float factor) {
+        pipeSpacing = Math.round(pipeSpacing * factor);
+        pipeGap = Math.round(pipeGap * factor);
+        pipeWidth = Math.round(pipeWidth * factor);
+        pipeMargin = Math.round(pipeMargin * factor);
+        pipeSpeed *= factor;
+        gravity *= factor;
+        jumpVelocity *= factor;
+        iconSize = Math.round(iconSize * factor);
+        iconStartX *= factor;
+        iconStartY *= factor;
+        return this;
+    }
+
+    /** @return Width of the playfield */
+    public int getScreenWidth() { return screenWidth; }
+
+    /** @return Height of the playfield */
+    public int getScreenHeight() { return screenHeight; }
+
+    /**
+     * Sets the size of the playfield.
+     *
+     * @param width Width in pixels
+     * @param height Height in pixels
+     * @return This config
+     */
+    public GameConfig setScreenSize(int width, int height) {
+        this.screenWidth = width;
+        this.screenHeight = height;
+        return this;
+    }
+
+    /** @return Simulation steps per second */
+    public int getTickRate() { return tickRate; }
+
+    /**
+     * @param tickRate Simulation steps per second
+     * @return This config
+     */
+    public GameConfig setTickRate(int tickRate) {
+        this.tickRate = Math.max(1, tickRate);
+        return this;
+    }
+
+    /** @return Length of one simulation step in seconds */
+    public float getStepSeconds() { return 1f / tickRate; }
+
+    /** @return Number of pipes in play at once */
+    public int getPipeCount() { return pipeCount; }
+
+    /**
+     * @param pipeCount Number of pipes in play at once
+     * @return This config
+     */
+    public GameConfig setPipeCount(int pipeCount) {
+        this.pipeCount = pipeCount;
+        return this;
+    }
+
+    /** @return Horizontal distance between consecutive pipes */
+    public int getPipeSpacing() { return pipeSpacing; }
+
+    /**
+     * @param pipeSpacing Horizontal distance between consecutive pipes
+     * @return This config
+     */
+    public GameConfig setPipeSpacing(int pipeSpacing) {
+        this.pipeSpacing = pipeSpacing;
+        return this;
+    }
+
+    /** @return Vertical size of the gap between a top and bottom pipe */
+    public int getPipeGap() { return pipeGap; }
+
+    /**
+     * @param pipeGap Vertical size of the gap between a top and bottom pipe
+     * @return This config
+     */
+    public GameConfig setPipeGap(int pipeGap) {
+        this.pipeGap = pipeGap;
+        return this;
+    }
+
+    /** @return Width of a pipe */
+    public int getPipeWidth() { return pipeWidth; }
+
+    /**
+     * @param pipeWidth Width of a pipe
+     * @return This config
+     */
+    public GameConfig setPipeWidth(int pipeWidth) {
+        this.pipeWidth = pipeWidth;
+        return this;
+    }
+
+    /** @return Minimum distance of a gap from the screen edges */
+    public int getPipeMargin() { return pipeMargin; }
+
+    /**
+     * @param pipeMargin Minimum distance of a gap from the screen edges
+     * @return This config
+     */
+    public GameConfig setPipeMargin(int pipeMargin) {
+        this.pipeMargin = pipeMargin;
+        return this;
+    }
+
+    /** @return Scroll speed of the pipes */
+    public float getPipeSpeed() { return pipeSpeed; }
+
+    /**
+     * @param pipeSpeed Scroll speed of the pipes
+     * @return This config
+     */
+    public GameConfig setPipeSpeed(float pipeSpeed) {
+        this.pipeSpeed = pipeSpeed;
+        return this;
+    }
+
+    /** @return Downward acceleration of the icon */
+    public float getGravity() { return gravity; }
+
+    /**
+     * @param gravity Downward acceleration of the icon
+     * @return This config
+     */
+    public GameConfig setGravity(float gravity) {
+        this.gravity = gravity;
+        return this;
+    }
+
+    /** @return Vertical velocity applied by a jump (negative is up) */
+    public float getJumpVelocity() { return jumpVelocity; }
+
+    /**
+     * @param jumpVelocity Vertical velocity applied by a jump (negative is up)
+     * @return This config
+     */
+    public GameConfig setJumpVelocity(float jumpVelocity) {
+        this.jumpVelocity = jumpVelocity;
+        return this;
+    }
+
+    /** @return Width and height of the icon */
+    public int getIconSize() { return iconSize; }
+
+    /**
+     * @param iconSize Width and height of the icon
+     * @return This config
+     */
+    public GameConfig setIconSize(int iconSize) {
+        this.iconSize = iconSize;
+        return this;
+    }
+
+    /** @return Horizontal position of the icon */
+    public float getIconStartX() { return iconStartX; }
+
+    /** @return Vertical position of the icon when a game starts */
+    public float getIconStartY() { return iconStartY; }
+
+    /**
+     * Sets where the icon starts a game.
+     *
+     * @param x Horizontal position
+     * @param y Vertical position
+     * @return This config
+     */
+    public GameConfig setIconStart(float x, float y) {
+        this.iconStartX = x;
+        this.iconStartY = y;
+        return this;
+    }
+}
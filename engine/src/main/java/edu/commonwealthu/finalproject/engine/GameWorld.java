@@ -0,0 +1,423 @@
+package edu.commonwealthu.finalproject.engine;
+
+import java.util.Random;
+
+/**
+ * Headless game simulation. Owns the icon, the pipes, the score and all game
+ * rules (physics, pipe recycling, scoring and collisions) without depending on
+ * Android, so it can be run and profiled on any JVM.
+ *
+ * The world advances in fixed steps of {@link GameConfig#getStepSeconds()}.
+ * Callers either run single steps with {@link #step()} or hand real elapsed time
+ * to {@link #advance(float)}, which keeps the remainder in an accumulator and
+ * exposes it as an interpolation factor for rendering.
+ *
+ * Jumps pressed on another thread are queued with their timestamps in the
+ * world's {@link InputQueue}. {@link #advance(float, long)} applies each press
+ * at the first step whose end is at or after the press, so a tap lands on the
+ * same tick no matter when during a frame the simulation happens to run.
+ *
+ * With a {@link TraceRecorder} set, the phases of each step are recorded as
+ * trace sections.
+ *
+ * Pipe gaps come from a seeded random generator, so two worlds with the same
+ * config, seed and input play out identically. A {@link Replay} attached with
+ * {@link #setReplayRecorder(Replay)} records the seed and the tick of every
+ * applied jump, which is all {@link ReplayPlayer} needs to re-simulate the game.
+ *
+ * Pipes live in an {@link ObstacleRing} sorted from left to right, so a step
+ * only looks at the pipes between the left screen edge and the icon. The cost
+ * of a step does not grow with the number of pipes in play.
+ *
+ * Collisions are swept: the icon's box is tested over its whole motion
+ * relative to each pipe during the step, so the game can run at low tick
+ * rates without the icon passing through a pipe between two steps. The ring's
+ * sorted order is the broad phase, narrowing the test to the pipes whose
+ * swept extent overlaps the icon horizontally. With {@link CollisionMask}s set,
+ * a hit of the boxes is confirmed pixel by pixel, so the icon's transparent
+ * corners can graze a pipe's without ending the game.
+ *
+ * @author Jacob Leonardo
+ */
+public class GameWorld {
+    private static final float MAX_FRAME_TIME = 0.25f; // seconds, avoids a spiral of death
+    private static final int INPUT_CAPACITY = 64;
+    private static final float MASK_SAMPLE_PIXELS = 4f; // largest move between two mask tests
+
+    private final GameConfig config;
+    private final Random random = new Random();
+    private final Icon icon;
+    private final ObstacleRing pipes;
+    private final ObstacleRing.GapSource gapSource = this::nextGapY;
+    private final InputQueue input = new InputQueue(INPUT_CAPACITY);
+    private Listener listener;
+    private TraceRecorder tracer;
+    private Replay recorder;
+    private CollisionMask iconMask, topPipeMask, bottomPipeMask;
+    private long seed;
+    private long tick = 0;
+    private int points = 0;
+    private boolean gameOver = false;
+    private boolean jumpRequested = false;
+    private float accumulator = 0f;
+    private long lastInputNanos = 0;
+    private long lastInputTick = -1;
+
+    /**
+     * Receives game events. Callbacks run synchronously on the thread that
+     * advances the world.
+     */
+    public interface Listener {
+        /**
+         * Called when the player passes a pipe.
+         *
+         * @param points The new score
+         */
+        void onPointScored(int points);
+
+        /**
+         * Called when the player collides with a pipe or the screen edge.
+         *
+         * @param points The final score
+         */
+        void onGameOver(int points);
+    }
+
+    /**
+     * Creates a world and starts a game with the given seed.
+     *
+     * @param config Gameplay constants
+     * @param seed Seed for pipe gap placement
+     */
+    public GameWorld(GameConfig config, long seed) {
+        this.config = config;
+        this.icon = new Icon(config);
+        this.pipes = new ObstacleRing(config);
+        reset(seed);
+    }
+
+    /**
+     * @param listener Receiver of point and game over events, or null
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @param tracer Recorder for the phases of each step, or null
+     */
+    public void setTracer(TraceRecorder tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Attaches a replay that records the current game, which must not have
+     * stepped yet, and every game after each reset.
+     *
+     * @param recorder Replay to fill, or null to stop recording
+     */
+    public void setReplayRecorder(Replay recorder) {
+        this.recorder = recorder;
+        if (recorder != null) recorder.begin(config, seed, iconMask, topPipeMask, bottomPipeMask);
+    }
+
+    /**
+     * Sets the pixel masks of the sprites, which must match the sizes they are
+     * drawn at: the icon at its box, the top pipe with its bottom edge on the
+     * gap's top and the bottom pipe with its top edge on the gap's bottom.
+     * Without masks, pipes collide as solid boxes. The masks are recorded in
+     * an attached {@link Replay}, so they must not change after being set.
+     *
+     * @param icon Mask of the icon, or null to collide with boxes
+     * @param topPipe Mask of the top pipe
+     * @param bottomPipe Mask of the bottom pipe
+     */
+    public void setCollisionMasks(CollisionMask icon, CollisionMask topPipe, CollisionMask bottomPipe) {
+        boolean complete = icon != null && topPipe != null && bottomPipe != null;
+        this.iconMask = complete ? icon : null;
+        this.topPipeMask = complete ? topPipe : null;
+        this.bottomPipeMask = complete ? bottomPipe : null;
+        if (recorder != null) recorder.setCollisionMasks(iconMask, topPipeMask, bottomPipeMask);
+    }
+
+    /**
+     * Starts a new game, reusing the existing icon and pipes.
+     *
+     * @param seed Seed for pipe gap placement
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+        tick = 0;
+        points = 0;
+        gameOver = false;
+        jumpRequested = false;
+        accumulator = 0f;
+        lastInputNanos = 0;
+        lastInputTick = -1;
+        input.clear();
+        icon.reset();
+        pipes.reset(config.getPipeCount(), config.getScreenWidth(), gapSource);
+        if (recorder != null) recorder.begin(config, seed, iconMask, topPipeMask, bottomPipeMask);
+    }
+
+    /**
+     * Picks a random gap position that keeps the gap away from the screen edges.
+     * The top pipe is normally at least as tall as the gap; on screens too
+     * short for that the gap may lie anywhere between the margins.
+     *
+     * @return Top edge of the gap
+     */
+    private int nextGapY() {
+        int minGapY = config.getPipeGap() + config.getPipeMargin();
+        int maxGapY = config.getScreenHeight() - config.getPipeGap() - config.getPipeMargin();
+        if (maxGapY < minGapY) minGapY = Math.min(config.getPipeMargin(), maxGapY);
+        return minGapY + random.nextInt(Math.max(1, maxGapY - minGapY));
+    }
+
+    /**
+     * Requests a jump, applied at the start of the next step.
+     */
+    public void jump() {
+        jumpRequested = true;
+    }
+
+    /**
+     * Runs as many fixed steps as the elapsed time allows and keeps the remainder
+     * for the next call. Without a clock, queued inputs are applied at the next step.
+     *
+     * @param frameSeconds Real time elapsed since the previous call
+     */
+    public void advance(float frameSeconds) {
+        advance(frameSeconds, Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs as many fixed steps as the elapsed time allows and keeps the remainder
+     * for the next call. Queued inputs are applied at the step covering their
+     * timestamp; inputs later than the last step run stay queued.
+     *
+     * @param frameSeconds Real time elapsed since the previous call
+     * @param nowNanos Current time on the clock the inputs were stamped with
+     */
+    public void advance(float frameSeconds, long nowNanos) {
+        if (gameOver) {
+            accumulator = 0f;
+            input.clear();
+            return;
+        }
+        float dt = config.getStepSeconds();
+        accumulator += Math.min(frameSeconds, MAX_FRAME_TIME);
+        while (!gameOver && accumulator >= dt) {
+            // The time this step ends at: now, minus what is still left to simulate after it.
+            long t = traceBegin();
+            pollInput(nowNanos - (long) ((accumulator - dt) * 1e9f));
+            traceEnd(TraceRecorder.INPUT, t);
+            step();
+            accumulator -= dt;
+        }
+    }
+
+    /**
+     * Turns queued inputs up to a point in time into a jump request for the next step.
+     *
+     * @param untilNanos Inputs stamped at or before this time are taken
+     */
+    private void pollInput(long untilNanos) {
+        while (!input.isEmpty() && input.peek() <= untilNanos) {
+            lastInputNanos = input.poll();
+            lastInputTick = tick;
+            jumpRequested = true;
+        }
+    }
+
+    /**
+     * @return Fraction of a step elapsed since the last update, for render interpolation
+     */
+    public float getInterpolation() {
+        return gameOver ? 1f : Math.min(1f, accumulator / config.getStepSeconds());
+    }
+
+    /**
+     * Advances the game by one fixed step: applies pending input, moves the icon
+     * and pipes, scores passed pipes and checks for collisions.
+     */
+    public void step() {
+        if (gameOver) return;
+        float dt = config.getStepSeconds();
+        if (jumpRequested) {
+            jumpRequested = false;
+            icon.jump();
+            if (recorder != null) recorder.addJump(tick);
+        }
+        long t = traceBegin();
+        icon.update(dt);
+        traceEnd(TraceRecorder.ICON_UPDATE, t);
+        t = traceBegin();
+        pipes.scroll(dt);
+        traceEnd(TraceRecorder.SCROLL_PIPES, t);
+        t = traceBegin();
+        boolean collided = checkCollisions();
+        traceEnd(TraceRecorder.CHECK_COLLISIONS, t);
+        t = traceBegin();
+        updatePipes(collided);
+        traceEnd(TraceRecorder.UPDATE_PIPES, t);
+        tick++;
+
+        if (collided) {
+            gameOver = true;
+            if (recorder != null) recorder.finish(tick, points, getStateChecksum());
+            if (listener != null) listener.onGameOver(points);
+        }
+    }
+
+    /**
+     * @return Start time of a trace section, or 0 when not tracing
+     */
+    private long traceBegin() {
+        return tracer != null ? tracer.begin() : 0;
+    }
+
+    /**
+     * @param section Trace section that ends now
+     * @param start Value returned by {@link #traceBegin()}
+     */
+    private void traceEnd(int section, long start) {
+        if (start != 0) tracer.end(section, start);
+    }
+
+    /**
+     * Awards points for pipes the icon has cleared, unless it crashed during
+     * the step, then recycles pipes that left the screen. Only pipes left of
+     * the icon are visited. Recycling waits until after the collision check so
+     * a pipe that crossed the icon and the screen edge in one step is still tested.
+     *
+     * @param collided Whether the icon hit something this step
+     */
+    private void updatePipes(boolean collided) {
+        for (int i = 0; i < pipes.size() && !collided; i++) {
+            Pipe pipe = pipes.get(i);
+            if (icon.getX() <= pipe.getX() + pipe.getWidth()) break;
+
+            if (!pipe.hasPassed()) {
+                pipe.setPassed();
+                points++;
+                if (listener != null) listener.onPointScored(points);
+            }
+        }
+        pipes.recycle(gapSource);
+    }
+
+    /**
+     * Checks for collisions between the icon and the pipes or screen boundaries.
+     * The screen edges are half-planes the icon cannot skip, so they are tested
+     * at the end of the step only; pipes are tested over the whole step.
+     *
+     * @return Whether the icon hit something
+     */
+    private boolean checkCollisions() {
+        float left = icon.getX();
+        float top = icon.getY();
+        float right = left + icon.getWidth();
+        float bottom = top + icon.getHeight();
+
+        boolean collided = top <= 0 || bottom >= config.getScreenHeight();
+        float dx = pipes.getStepScroll();
+        float dy = icon.getY() - icon.getPreviousY();
+        // Broad phase: during the step a pipe spanned [x, x + width + dx], so skip
+        // the pipes that ended left of the icon and stop at the first starting right of it.
+        for (int i = pipes.firstEndingAfter(left - dx); i < pipes.size() && !collided; i++) {
+            Pipe pipe = pipes.get(i);
+            if (pipe.getX() >= right) break; // every later pipe is further right
+            collided = pipe.sweptIntersects(left, top, right, bottom, dx, dy)
+                    && (iconMask == null || masksOverlap(pipe, left, top, dx, dy));
+        }
+        return collided;
+    }
+
+    /**
+     * Narrow phase: tests the sprite masks at points along the step, spaced so
+     * that neither the icon nor the pipe moves more than a few pixels between
+     * two tests. Only runs once the swept boxes have hit.
+     *
+     * @param pipe Pipe whose box the icon hit
+     * @param left Left edge of the icon at the end of the step
+     * @param top Top edge of the icon at the end of the step
+     * @param dx Distance the pipe moved left during the step
+     * @param dy Distance the icon moved down during the step
+     * @return Whether a solid pixel of the icon touched one of the pipe
+     */
+    private boolean masksOverlap(Pipe pipe, float left, float top, float dx, float dy) {
+        int samples = Math.max(1, (int) Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)) / MASK_SAMPLE_PIXELS));
+        int topPipeY = pipe.getGapTop() - topPipeMask.getHeight();
+        for (int k = 1; k <= samples; k++) {
+            float remaining = 1f - (float) k / samples; // share of the step still to go
+            int x = Math.round(left - (pipe.getX() + dx * remaining));
+            int y = Math.round(top - dy * remaining);
+            if (bottomPipeMask.overlaps(iconMask, x, y - pipe.getGapBottom())
+                    || topPipeMask.overlaps(iconMask, x, y - topPipeY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Combines the tick, score, icon and pipe state into one value. Two runs
+     * that took exactly the same path have the same checksum.
+     *
+     * @return Checksum of the simulation state
+     */
+    public long getStateChecksum() {
+        long hash = tick;
+        hash = hash * 31 + points;
+        hash = hash * 31 + Float.floatToIntBits(icon.getY());
+        hash = hash * 31 + Float.floatToIntBits(icon.getVelocity());
+        hash = hash * 31 + Float.floatToIntBits(pipes.getScroll());
+        for (int i = 0; i < pipes.size(); i++) {
+            Pipe pipe = pipes.get(i);
+            hash = hash * 31 + Float.floatToIntBits(pipe.getWorldX());
+            hash = hash * 31 + pipe.getGapTop();
+        }
+        return hash;
+    }
+
+    /** @return Queue that jump presses are offered to, read at the next steps */
+    public InputQueue getInput() { return input; }
+
+    /** @return Timestamp of the most recently applied input */
+    public long getLastInputNanos() { return lastInputNanos; }
+
+    /** @return Tick at which the most recent input was applied, or -1 if none has been */
+    public long getLastInputTick() { return lastInputTick; }
+
+    /** @return Gameplay constants used by this world */
+    public GameConfig getConfig() { return config; }
+
+    /** @return Seed of the current game */
+    public long getSeed() { return seed; }
+
+    /** @return Number of steps simulated since the game started */
+    public long getTick() { return tick; }
+
+    /** @return Current score */
+    public int getPoints() { return points; }
+
+    /** @return Whether the player has crashed */
+    public boolean isGameOver() { return gameOver; }
+
+    /** @return The player's icon */
+    public Icon getIcon() { return icon; }
+
+    /** @return Number of pipes in play */
+    public int getPipeCount() { return pipes.size(); }
+
+    /**
+     * @param index Position from the left, 0 being the leftmost pipe
+     * @return The pipe at that position
+     */
+    public Pipe getPipe(int index) { return pipes.get(index); }
+
+    /** @return The pipes, ordered from left to right */
+    public ObstacleRing getPipes() { return pipes; }
+}
@@ -0,0 +1,104 @@
+package edu.commonwealthu.finalproject.engine;
+
+/**
+ * Represents the player's icon with physics-based movement.
+ * Manages icon position, velocity, and collision bounds in a game environment.
+ * Physics are expressed in pixels per second so the icon moves the same
+ * distance regardless of how often it is updated.
+ *
+ * @author Jacob Leonardo
+ */
+
+public class Icon {
+    private final GameConfig config;
+    private float x, y, previousY;
+    private float velocity = 0f;
+
+    /**
+     * Constructs an Icon at the configured starting position.
+     *
+     * @param config Gameplay constants for gravity, jump strength and size
+     */
+    public Icon(GameConfig config) {
+        this.config = config;
+        reset();
+    }
+
+    /**
+     * Moves the icon back to its starting position and clears its velocity.
+     */
+    public void reset() {
+        x = config.getIconStartX();
+        y = config.getIconStartY();
+        previousY = y;
+        velocity = 0f;
+    }
+
+    /**
+     * Updates the icon's position based on velocity and gravity.
+     * Applies gravitational acceleration and prevents upward movement beyond screen bounds.
+     *
+     * @param dt Length of the simulation step in seconds
+     */
+    public void update(float dt) {
+        float gravity = config.getGravity();
+        previousY = y;
+        y += velocity * dt + 0.5f * gravity * dt * dt;
+        velocity += gravity * dt;
+        if (y < 0) y = 0; // Don't go above screen
+    }
+
+    /**
+     * @return Vertical position before the last update
+     */
+    public float getPreviousY() {
+        return previousY;
+    }
+
+    /**
+     * Applies an upward jump force to the icon by setting a negative velocity.
+     * Simulates a jumping or upward movement action.
+     */
+    public void jump() {
+        velocity = config.getJumpVelocity();
+    }
+
+    /**
+     * Retrieves the current x-coordinate of the icon.
+     *
+     * @return Current x-position
+     */
+    public float getX() {
+        return x;
+    }
+
+    /**
+     * Retrieves the current y-coordinate of the icon.
+     *
+     * @return Current y-position
+     */
+    public float getY() {
+        return y;
+    }
+
+    /** @return Current vertical velocity in pixels per second */
+    public float getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Interpolates between the previous and current step for smooth rendering.
+     *
+     * @param alpha Fraction of a step elapsed since the last update, from 0 to 1
+     * @return Y-position to draw the icon at
+     */
+    public float getRenderY(float alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
+    /** @return Width of the icon */
+    public int getWidth() { return config.getIconSize(); }
+
+    /** @return Height of the icon */
+    public int getHeight() { return config.getIconSize(); }
+}
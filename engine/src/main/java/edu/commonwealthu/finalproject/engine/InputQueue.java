@@ -0,0 +1,78 @@
+package edu.commonwealthu.finalproject.engine;
+
+/**
+ * Bounded single-producer, single-consumer queue of input timestamps.
+ *
+ * The input thread records when each jump was pressed with {@link #offer(long)}
+ * and the simulation thread takes the presses out in order as its steps reach
+ * their timestamps. Neither side locks or allocates: timestamps live in a
+ * preallocated ring and the two indices are published through volatile fields,
+ * each written by only one thread.
+ *
+ * @author Jacob Leonardo
+ */
+public final class InputQueue {
+    private final long[] timestamps;
+    private final int mask;
+    private volatile long head = 0; // next slot to read, written by the consumer
+    private volatile long tail = 0; // next slot to write, written by the producer
+
+    /**
+     * @param capacity Maximum number of pending inputs, rounded up to a power of two
+     */
+    public InputQueue(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        timestamps = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds an input. Called from the producer thread only.
+     *
+     * @param timeNanos When the input happened, on the same clock the world is advanced with
+     * @return False if the queue was full and the input was dropped
+     */
+    public boolean offer(long timeNanos) {
+        long t = tail;
+        if (t - head == timestamps.length) return false;
+        timestamps[(int) t & mask] = timeNanos;
+        tail = t + 1;
+        return true;
+    }
+
+    /** @return Whether no input is pending. Called from the consumer thread only. */
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    /**
+     * @return Timestamp of the oldest pending input. Only valid when not {@link #isEmpty()}.
+     */
+    public long peek() {
+        return timestamps[(int) head & mask];
+    }
+
+    /**
+     * Removes the oldest pending input. Called from the consumer thread only.
+     *
+     * @return Its timestamp. Only valid when not {@link #isEmpty()}.
+     */
+    public long poll() {
+        long h = head;
+        long time = timestamps[(int) h & mask];
+        head = h + 1;
+        return time;
+    }
+
+    /**
+     * Drops every pending input. Called from the consumer thread only.
+     */
+    public void clear() {
+        head = tail;
+    }
+
+    /** @return Maximum number of pending inputs */
+    public int capacity() {
+        return timestamps.length;
+    }
+}
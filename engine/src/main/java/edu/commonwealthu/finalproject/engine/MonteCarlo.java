@@ -0,0 +1,283 @@
+package edu.commonwealthu.finalproject.engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays large numbers of simulated games in parallel to measure how a config
+ * plays and how fast the simulation runs.
+ *
+ * Games are split across a {@link ForkJoinPool} in batches; each batch reuses
+ * one {@link GameWorld}, so the hot loop allocates nothing. Game {@code i} always
+ * uses seed {@code baseSeed + i} for both the world and the bot, so results do
+ * not depend on how the work was split or how many cores ran it.
+ *
+ * Run {@link #main} (or {@code ./gradlew :engine:simulate}) for a report of the
+ * score distribution and the simulation throughput per core.
+ *
+ * @author Jacob Leonardo
+ */
+public final class MonteCarlo {
+    private static final int BATCH_SIZE = 256;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final GameConfig config;
+    private final BotPolicy policy;
+    private final long maxTicks;
+
+    /**
+     * @param config Config every game is played with; must not change during a run
+     * @param policy Bot that plays the games
+     * @param maxTicks Length after which a game counts as survived and is stopped
+     */
+    public MonteCarlo(GameConfig config, BotPolicy policy, long maxTicks) {
+        this.config = config;
+        this.policy = policy;
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Plays games in the common fork/join pool.
+     *
+     * @param games Number of games
+     * @param baseSeed Seed of the first game
+     * @return Combined results
+     */
+    public Result run(int games, long baseSeed) {
+        return run(games, baseSeed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays games in the given pool.
+     *
+     * @param games Number of games
+     * @param baseSeed Seed of the first game
+     * @param pool Pool to run on
+     * @return Combined results
+     */
+    public Result run(int games, long baseSeed, ForkJoinPool pool) {
+        return pool.invoke(new Batch(0, games, baseSeed));
+    }
+
+    /**
+     * Plays a range of games, splitting it in half until it is one batch.
+     */
+    private final class Batch extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final long baseSeed;
+
+        /**
+         * @param from First game, inclusive
+         * @param to Last game, exclusive
+         * @param baseSeed Seed of game 0
+         */
+        Batch(int from, int to, long baseSeed) {
+            this.from = from;
+            this.to = to;
+            this.baseSeed = baseSeed;
+        }
+
+        /**
+         * @return Results of the games in this range
+         */
+        @Override
+        protected Result compute() {
+            if (to - from > BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                Batch left = new Batch(from, middle, baseSeed);
+                left.fork();
+                Result right = new Batch(middle, to, baseSeed).compute();
+                return left.join().merge(right);
+            }
+
+            long start = cpuTimeNanos();
+            Result result = new Result();
+            GameWorld world = new GameWorld(config, baseSeed + from);
+            Random random = new Random();
+            for (int game = from; game < to; game++) {
+                long seed = baseSeed + game;
+                world.reset(seed);
+                random.setSeed(seed);
+                while (!world.isGameOver() && world.getTick() < maxTicks) {
+                    if (policy.shouldJump(world, random)) world.jump();
+                    world.step();
+                }
+                result.add(world.getPoints(), world.getTick(), !world.isGameOver());
+            }
+            result.busyNanos = cpuTimeNanos() - start;
+            return result;
+        }
+    }
+
+    /**
+     * @return CPU time of the current thread, or wall time if the JVM cannot measure it
+     */
+    private static long cpuTimeNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Score distribution and throughput of a run.
+     */
+    public static final class Result {
+        private static final int MAX_TRACKED_POINTS = 1024;
+
+        private final long[] pointsHistogram = new long[MAX_TRACKED_POINTS + 1]; // last is overflow
+        private long games;
+        private long survived;
+        private long totalTicks;
+        private long totalPoints;
+        private int maxPoints;
+        private long busyNanos;
+
+        /**
+         * @param points Final score of a game
+         * @param ticks Steps the game lasted
+         * @param survivedGame Whether the game was stopped at the tick limit
+         */
+        void add(int points, long ticks, boolean survivedGame) {
+            pointsHistogram[Math.min(points, MAX_TRACKED_POINTS)]++;
+            games++;
+            if (survivedGame) survived++;
+            totalTicks += ticks;
+            totalPoints += points;
+            maxPoints = Math.max(maxPoints, points);
+        }
+
+        /**
+         * @param other Results of other games
+         * @return This result with the other games added
+         */
+        Result merge(Result other) {
+            for (int i = 0; i < pointsHistogram.length; i++) {
+                pointsHistogram[i] += other.pointsHistogram[i];
+            }
+            games += other.games;
+            survived += other.survived;
+            totalTicks += other.totalTicks;
+            totalPoints += other.totalPoints;
+            maxPoints = Math.max(maxPoints, other.maxPoints);
+            busyNanos += other.busyNanos;
+            return this;
+        }
+
+        /** @return Number of games played */
+        public long getGames() { return games; }
+
+        /** @return Number of games still alive at the tick limit */
+        public long getSurvived() { return survived; }
+
+        /** @return Steps simulated over all games */
+        public long getTotalTicks() { return totalTicks; }
+
+        /** @return Highest score of any game */
+        public int getMaxPoints() { return maxPoints; }
+
+        /** @return Mean score */
+        public double getMeanPoints() {
+            return games == 0 ? 0 : (double) totalPoints / games;
+        }
+
+        /**
+         * @param points Score to reach
+         * @return Fraction of games that scored at least this many points
+         */
+        public double getSurvivalRate(int points) {
+            if (games == 0) return 0;
+            long below = 0;
+            for (int i = 0; i < Math.min(points, pointsHistogram.length); i++) {
+                below += pointsHistogram[i];
+            }
+            return 1.0 - (double) below / games;
+        }
+
+        /**
+         * @param percentile Fraction between 0 and 1, e.g. 0.5 for the median
+         * @return Score that this fraction of games did not exceed
+         */
+        public int getPointsPercentile(double percentile) {
+            long target = Math.max(1, (long) Math.ceil(percentile * games));
+            long seen = 0;
+            for (int i = 0; i < pointsHistogram.length - 1; i++) {
+                seen += pointsHistogram[i];
+                if (seen >= target) return i;
+            }
+            return maxPoints;
+        }
+
+        /** @return CPU time spent simulating, summed over all threads, in nanoseconds */
+        public long getBusyNanos() { return busyNanos; }
+
+        /** @return Steps simulated per second of one core */
+        public double getTicksPerSecondPerCore() {
+            return busyNanos == 0 ? 0 : totalTicks * 1e9 / busyNanos;
+        }
+    }
+
+    /**
+     * Runs a simulation from the command line and prints a report.
+     * Arguments are {@code name=value} pairs, all optional:
+     * {@code games}, {@code seed}, {@code maxTicks}, {@code policy} ({@code tracker} or {@code random}),
+     * {@code margin}, {@code noise}, {@code taps} (random taps per second), and the config values
+     * {@code tickRate}, {@code gap}, {@code spacing}, {@code speed}, {@code gravity} and {@code jump}.
+     *
+     * @param args Arguments as described above
+     */
+    public static void main(String[] args) {
+        int games = 100_000;
+        long seed = 1L;
+        long maxTicks = 60L * 60 * 5;
+        String policyName = "tracker";
+        int margin = 60, noise = 40;
+        float taps = 2f;
+        GameConfig config = new GameConfig();
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected name=value: " + arg);
+            String name = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "games": games = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                case "maxTicks": maxTicks = Long.parseLong(value); break;
+                case "policy": policyName = value; break;
+                case "margin": margin = Integer.parseInt(value); break;
+                case "noise": noise = Integer.parseInt(value); break;
+                case "taps": taps = Float.parseFloat(value); break;
+                case "tickRate": config.setTickRate(Integer.parseInt(value)); break;
+                case "gap": config.setPipeGap(Integer.parseInt(value)); break;
+                case "spacing": config.setPipeSpacing(Integer.parseInt(value)); break;
+                case "speed": config.setPipeSpeed(Float.parseFloat(value)); break;
+                case "gravity": config.setGravity(Float.parseFloat(value)); break;
+                case "jump": config.setJumpVelocity(Float.parseFloat(value)); break;
+                default: throw new IllegalArgumentException("Unknown argument: " + name);
+            }
+        }
+        BotPolicy policy = "random".equals(policyName) ? BotPolicy.random(taps) : BotPolicy.gapTracker(margin, noise);
+        MonteCarlo simulation = new MonteCarlo(config, policy, maxTicks);
+
+        simulation.run(Math.min(games, 4 * BATCH_SIZE), seed); // warm up the JIT
+        long start = System.nanoTime();
+        Result result = simulation.run(games, seed);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf(Locale.US, "%d games, policy %s, parallelism %d, %.2f s%n",
+                result.getGames(), policyName, ForkJoinPool.commonPool().getParallelism(), elapsed / 1e9);
+        System.out.printf(Locale.US, "points: mean %.2f  p50 %d  p90 %d  p99 %d  max %d%n",
+                result.getMeanPoints(), result.getPointsPercentile(0.5), result.getPointsPercentile(0.9),
+                result.getPointsPercentile(0.99), result.getMaxPoints());
+        for (int points : new int[]{1, 5, 10, 25, 50, 100}) {
+            System.out.printf(Locale.US, "  reached %3d points: %6.2f%%%n", points, 100 * result.getSurvivalRate(points));
+        }
+        System.out.printf(Locale.US, "survived %d ticks: %.2f%%%n", maxTicks, 100.0 * result.getSurvived() / result.getGames());
+        System.out.printf(Locale.US, "throughput: %.3g ticks/s total, %.3g ticks/s/core%n",
+                result.getTotalTicks() * 1e9 / elapsed, result.getTicksPerSecondPerCore());
+    }
+}
@@ -0,0 +1,183 @@
+package edu.commonwealthu.finalproject.engine;
+
+/**
+ * Fixed-capacity ring buffer of pipes, ordered from leftmost (head) to
+ * rightmost (tail).
+ *
+ * Pipes keep their positions in world space and the ring keeps a single scroll
+ * offset, so moving every pipe is one addition regardless of how many there
+ * are. Because all pipes scroll at the same speed, the ring stays sorted: only
+ * the head can leave the screen, and it is recycled by moving it behind the
+ * tail and advancing the head index. Recycling and finding the next spawn
+ * position are therefore O(1).
+ *
+ * The sorted order also serves as the broad phase for collisions:
+ * {@link #firstEndingAfter(float)} binary-searches for the first pipe that
+ * reaches past a screen position, and a scan can stop at the first pipe that
+ * starts beyond the area of interest.
+ *
+ * @author Jacob Leonardo
+ */
+public class ObstacleRing {
+    // Scroll distance after which world positions are shifted back towards zero,
+    // keeping float precision for arbitrarily long runs.
+    private static final float REBASE_DISTANCE = 65536f;
+
+    private final GameConfig config;
+    private Pipe[] slots = new Pipe[0];
+    private int head = 0;
+    private int size = 0;
+    private float scroll = 0f, previousScroll = 0f;
+
+    /**
+     * Supplies the gap position for a newly placed pipe.
+     */
+    public interface GapSource {
+        /** @return Top edge of the gap for the next pipe */
+        int nextGapY();
+    }
+
+    /**
+     * Constructs an empty ring.
+     *
+     * @param config Gameplay constants for pipe size, spacing and speed
+     */
+    public ObstacleRing(GameConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Lays out pipes evenly from a starting position, reusing existing pipe
+     * objects and growing the ring only if more pipes are needed.
+     *
+     * @param count Number of pipes
+     * @param firstX World position of the leftmost pipe
+     * @param gaps Source of gap positions
+     */
+    public void reset(int count, float firstX, GapSource gaps) {
+        if (slots.length < count) {
+            Pipe[] grown = new Pipe[count];
+            System.arraycopy(slots, 0, grown, 0, slots.length);
+            for (int i = slots.length; i < count; i++) {
+                grown[i] = new Pipe(config, this);
+            }
+            slots = grown;
+        }
+        head = 0;
+        size = count;
+        scroll = 0f;
+        previousScroll = 0f;
+        for (int i = 0; i < count; i++) {
+            slots[i].resetPosition(firstX + i * config.getPipeSpacing(), gaps.nextGapY());
+        }
+    }
+
+    /**
+     * Scrolls every pipe left by one step and recycles pipes that left the screen.
+     *
+     * @param dt Length of the step in seconds
+     * @param gaps Source of gap positions for recycled pipes
+     */
+    public void advance(float dt, GapSource gaps) {
+        scroll(dt);
+        recycle(gaps);
+    }
+
+    /**
+     * Scrolls every pipe left by one step without recycling any.
+     *
+     * @param dt Length of the step in seconds
+     */
+    public void scroll(float dt) {
+        previousScroll = scroll;
+        scroll += config.getPipeSpeed() * dt;
+    }
+
+    /**
+     * Moves pipes that left the screen behind the tail. Called after
+     * {@link #scroll(float)}, once the step no longer needs the old pipes.
+     *
+     * @param gaps Source of gap positions for recycled pipes
+     */
+    public void recycle(GapSource gaps) {
+        while (size > 0) {
+            Pipe first = slots[head];
+            if (first.getX() + first.getWidth() >= 0) break;
+            first.resetPosition(getNextSpawnWorldX(), gaps.nextGapY());
+            head = (head + 1) % size;
+        }
+
+        if (scroll > REBASE_DISTANCE) {
+            rebase();
+        }
+    }
+
+    /**
+     * Shifts all world positions and the scroll offset back by the current scroll.
+     * Screen positions are unchanged. Runs rarely, so its O(n) cost is negligible.
+     */
+    private void rebase() {
+        float shift = scroll;
+        for (int i = 0; i < size; i++) {
+            slots[i].shiftWorldX(-shift);
+        }
+        scroll -= shift;
+        previousScroll -= shift;
+    }
+
+    /** @return World position where the next recycled pipe is placed */
+    private float getNextSpawnWorldX() {
+        Pipe tail = slots[(head + size - 1) % size];
+        return tail.getWorldX() + config.getPipeSpacing();
+    }
+
+    /** @return Screen position where the next recycled pipe will appear */
+    public float getNextSpawnX() {
+        return size == 0 ? config.getScreenWidth() : getNextSpawnWorldX() - scroll;
+    }
+
+    /** @return Number of pipes in the ring */
+    public int size() { return size; }
+
+    /**
+     * @param index Position from the left, 0 being the leftmost pipe
+     * @return The pipe at that position
+     */
+    public Pipe get(int index) {
+        return slots[(head + index) % size];
+    }
+
+    /**
+     * Finds the leftmost pipe whose right edge is past a screen position.
+     *
+     * @param x Screen position
+     * @return Index of that pipe, or {@link #size()} if every pipe ends at or before it
+     */
+    public int firstEndingAfter(float x) {
+        int low = 0, high = size;
+        float width = config.getPipeWidth();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle).getX() + width > x) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /** @return Distance the pipes moved left during the last step, in pixels */
+    public float getStepScroll() { return scroll - previousScroll; }
+
+    /** @return Distance scrolled, in pixels */
+    public float getScroll() { return scroll; }
+
+    /**
+     * @param alpha Fraction of a step elapsed since the last update, from 0 to 1
+     * @return Scroll offset interpolated between the last two steps
+     */
+    public float getRenderScroll(float alpha) {
+        return previousScroll + (scroll - previousScroll) * alpha;
+    }
+}
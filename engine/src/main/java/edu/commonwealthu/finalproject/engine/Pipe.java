@@ -0,0 +1,148 @@
+package edu.commonwealthu.finalproject.engine;
+
+/**
+ * Represents a pair of pipes in a side-scrolling game framing a gap.
+ * Pipes keep a fixed position in world space; their screen position is that
+ * minus the scroll offset of the {@link ObstacleRing} they belong to, so
+ * moving them costs nothing per pipe.
+ *
+ * @author Jacob Leonardo
+ */
+
+public class Pipe {
+    private final GameConfig config;
+    private final ObstacleRing ring;
+    private float worldX;
+    private int gapY;
+    private boolean hasPassed = false;
+
+    /**
+     * Constructs a Pipe owned by a ring.
+     *
+     * @param config Gameplay constants for pipe size and gap
+     * @param ring Ring supplying the scroll offset
+     */
+    Pipe(GameConfig config, ObstacleRing ring) {
+        this.config = config;
+        this.ring = ring;
+    }
+
+    /**
+     * Moves the pipe to a new position with a new gap location.
+     *
+     * @param startWorldX Horizontal position in world space
+     * @param gapY Top edge of the gap
+     */
+    public void resetPosition(float startWorldX, int gapY) {
+        worldX = startWorldX;
+        hasPassed = false;
+        this.gapY = gapY;
+    }
+
+    /**
+     * Moves the pipe in world space without changing its screen position
+     * relative to the other pipes.
+     *
+     * @param dx Distance to move
+     */
+    void shiftWorldX(float dx) {
+        worldX += dx;
+    }
+
+    /**
+     * Interpolates between the previous and current step for smooth rendering.
+     *
+     * @param alpha Fraction of a step elapsed since the last update, from 0 to 1
+     * @return X-position to draw the pipe at
+     */
+    public float getRenderX(float alpha) {
+        return worldX - ring.getRenderScroll(alpha);
+    }
+
+    /** @return Current horizontal position of the pipe on screen */
+    public float getX() { return worldX - ring.getScroll(); }
+
+    /** @return Horizontal position of the pipe in world space */
+    public float getWorldX() { return worldX; }
+
+    /** @return Width of the pipe */
+    public int getWidth() { return config.getPipeWidth(); }
+
+    /** @return Bottom edge of the top pipe */
+    public int getGapTop() { return gapY; }
+
+    /** @return Top edge of the bottom pipe */
+    public int getGapBottom() { return gapY + config.getPipeGap(); }
+
+    /** @return Whether the player has already scored on this pipe */
+    public boolean hasPassed() { return hasPassed; }
+
+    /** Marks this pipe as scored so it only awards a single point. */
+    public void setPassed() { hasPassed = true; }
+
+    /**
+     * Tests whether a box moving during the last step touched either pipe at
+     * any point of the step, not just at its end, so fast movement or a low
+     * tick rate cannot carry the box through a pipe. Motion is taken relative
+     * to this pipe, which moved left while the box moved vertically.
+     *
+     * @param left Left edge of the box at the end of the step
+     * @param top Top edge of the box at the end of the step
+     * @param right Right edge of the box at the end of the step
+     * @param bottom Bottom edge of the box at the end of the step
+     * @param pipeDx Distance this pipe moved left during the step
+     * @param boxDy Distance the box moved down during the step
+     * @return True if the box touched a pipe during the step
+     */
+    public boolean sweptIntersects(float left, float top, float right, float bottom, float pipeDx, float boxDy) {
+        // In the pipe's frame the box started pipeDx further left and boxDy higher.
+        float x = getX();
+        float startLeft = left - pipeDx;
+        float startRight = right - pipeDx;
+        float startTop = top - boxDy;
+        float startBottom = bottom - boxDy;
+
+        float enterX, exitX;
+        if (pipeDx != 0) {
+            float a = (x - startRight) / pipeDx;
+            float b = (x + config.getPipeWidth() - startLeft) / pipeDx;
+            enterX = Math.min(a, b);
+            exitX = Math.max(a, b);
+        } else if (startRight > x && startLeft < x + config.getPipeWidth()) {
+            enterX = Float.NEGATIVE_INFINITY;
+            exitX = Float.POSITIVE_INFINITY;
+        } else {
+            return false;
+        }
+
+        return sweptOverlap(enterX, exitX, startTop, startBottom, boxDy, Float.NEGATIVE_INFINITY, gapY)
+                || sweptOverlap(enterX, exitX, startTop, startBottom, boxDy, getGapBottom(), Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Intersects the time a moving box overlaps a pipe horizontally with the
+     * time it overlaps a vertical span.
+     *
+     * @param enterX Fraction of the step at which horizontal overlap starts
+     * @param exitX Fraction of the step at which horizontal overlap ends
+     * @param startTop Top edge of the box at the start of the step
+     * @param startBottom Bottom edge of the box at the start of the step
+     * @param dy Distance the box moved down during the step
+     * @param spanTop Top of the span
+     * @param spanBottom Bottom of the span
+     * @return True if both overlaps coincide within the step
+     */
+    private static boolean sweptOverlap(float enterX, float exitX, float startTop, float startBottom,
+                                        float dy, float spanTop, float spanBottom) {
+        float enter = enterX, exit = exitX;
+        if (dy != 0) {
+            float a = (spanTop - startBottom) / dy;
+            float b = (spanBottom - startTop) / dy;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        } else if (startBottom <= spanTop || startTop >= spanBottom) {
+            return false;
+        }
+        return enter < exit && enter <= 1f && exit >= 0f;
+    }
+}
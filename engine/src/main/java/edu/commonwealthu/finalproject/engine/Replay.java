@@ -0,0 +1,274 @@
+package edu.commonwealthu.finalproject.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Everything needed to re-simulate one game exactly: the config, the seed,
+ * the collision masks if the game used any, and the ticks at which the player
+ * jumped, plus the final tick, score and state checksum to check the
+ * re-simulation against.
+ *
+ * A {@link GameWorld} fills a replay while it plays once one is attached with
+ * {@link GameWorld#setReplayRecorder(Replay)}; {@link ReplayPlayer} plays it
+ * back headless. The binary form stores jump ticks as variable-length deltas,
+ * so a typical game takes a few hundred bytes.
+ *
+ * @author Jacob Leonardo
+ */
+public final class Replay {
+    private static final int MAGIC = 0x47445250; // "GDRP"
+    private static final int VERSION = 2; // 2 added collision masks
+
+    private final GameConfig config = new GameConfig();
+    private long seed;
+    private CollisionMask iconMask, topPipeMask, bottomPipeMask;
+    private int[] jumpTicks = new int[64];
+    private int jumpCount = 0;
+    private long finalTick = -1;
+    private int finalPoints = 0;
+    private long finalChecksum = 0;
+
+    /**
+     * Clears the replay for a new game.
+     *
+     * @param config Config the game is played with; copied
+     * @param seed Seed of the game
+     * @param icon Icon mask the game is played with, or null for boxes
+     * @param topPipe Top pipe mask
+     * @param bottomPipe Bottom pipe mask
+     */
+    void begin(GameConfig config, long seed, CollisionMask icon, CollisionMask topPipe, CollisionMask bottomPipe) {
+        this.config.copyFrom(config);
+        this.seed = seed;
+        setCollisionMasks(icon, topPipe, bottomPipe);
+        jumpCount = 0;
+        finalTick = -1;
+        finalPoints = 0;
+        finalChecksum = 0;
+    }
+
+    /**
+     * Records the collision masks the game is played with. Masks are kept by
+     * reference, so they must not change while the game is recorded.
+     *
+     * @param icon Mask of the icon, or null for boxes
+     * @param topPipe Mask of the top pipe
+     * @param bottomPipe Mask of the bottom pipe
+     */
+    void setCollisionMasks(CollisionMask icon, CollisionMask topPipe, CollisionMask bottomPipe) {
+        iconMask = icon;
+        topPipeMask = topPipe;
+        bottomPipeMask = bottomPipe;
+    }
+
+    /**
+     * Records a jump applied at the start of a step.
+     *
+     * @param tick Tick of that step
+     */
+    void addJump(long tick) {
+        if (jumpCount == jumpTicks.length) {
+            jumpTicks = Arrays.copyOf(jumpTicks, jumpCount * 2);
+        }
+        jumpTicks[jumpCount++] = (int) tick;
+    }
+
+    /**
+     * Records how the game ended.
+     *
+     * @param tick Number of steps simulated
+     * @param points Final score
+     * @param checksum {@link GameWorld#getStateChecksum()} at the end
+     */
+    void finish(long tick, int points, long checksum) {
+        finalTick = tick;
+        finalPoints = points;
+        finalChecksum = checksum;
+    }
+
+    /** @return Config the game was played with */
+    public GameConfig getConfig() { return config; }
+
+    /** @return Seed of the game */
+    public long getSeed() { return seed; }
+
+    /** @return Whether the game collided with pixel masks instead of boxes */
+    public boolean hasCollisionMasks() { return iconMask != null; }
+
+    /** @return Mask of the icon, or null if the game collided with boxes */
+    public CollisionMask getIconMask() { return iconMask; }
+
+    /** @return Mask of the top pipe, or null if the game collided with boxes */
+    public CollisionMask getTopPipeMask() { return topPipeMask; }
+
+    /** @return Mask of the bottom pipe, or null if the game collided with boxes */
+    public CollisionMask getBottomPipeMask() { return bottomPipeMask; }
+
+    /** @return Number of recorded jumps */
+    public int getJumpCount() { return jumpCount; }
+
+    /**
+     * @param index Jump number, in order
+     * @return Tick at which that jump was applied
+     */
+    public int getJumpTick(int index) { return jumpTicks[index]; }
+
+    /** @return Whether the game ended while recording */
+    public boolean isFinished() { return finalTick >= 0; }
+
+    /** @return Number of steps the game lasted, or -1 if it did not finish */
+    public long getFinalTick() { return finalTick; }
+
+    /** @return Final score */
+    public int getFinalPoints() { return finalPoints; }
+
+    /** @return State checksum at the end of the game */
+    public long getFinalChecksum() { return finalChecksum; }
+
+    /**
+     * Saves the replay in its binary form.
+     *
+     * @param out Stream to write to; not closed
+     * @throws IOException If writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(seed);
+        data.writeInt(config.getScreenWidth());
+        data.writeInt(config.getScreenHeight());
+        data.writeInt(config.getTickRate());
+        data.writeInt(config.getPipeCount());
+        data.writeInt(config.getPipeSpacing());
+        data.writeInt(config.getPipeGap());
+        data.writeInt(config.getPipeWidth());
+        data.writeInt(config.getPipeMargin());
+        data.writeFloat(config.getPipeSpeed());
+        data.writeFloat(config.getGravity());
+        data.writeFloat(config.getJumpVelocity());
+        data.writeInt(config.getIconSize());
+        data.writeFloat(config.getIconStartX());
+        data.writeFloat(config.getIconStartY());
+        data.writeBoolean(iconMask != null);
+        if (iconMask != null) {
+            iconMask.write(data);
+            topPipeMask.write(data);
+            bottomPipeMask.write(data);
+        }
+
+        writeVarInt(data, jumpCount);
+        int previous = 0;
+        for (int i = 0; i < jumpCount; i++) {
+            writeVarInt(data, jumpTicks[i] - previous);
+            previous = jumpTicks[i];
+        }
+        data.writeLong(finalTick);
+        data.writeInt(finalPoints);
+        data.writeLong(finalChecksum);
+        data.flush();
+    }
+
+    /**
+     * @return The replay in its binary form
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(iconMask != null ? 4096 : 128 + jumpCount * 2);
+        try {
+            write(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // not thrown by an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Loads a replay saved with {@link #write}.
+     *
+     * @param in Stream to read from; not closed
+     * @return The replay
+     * @throws IOException If reading fails or the data is not a replay
+     */
+    public static Replay read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        int version = data.readInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        Replay replay = new Replay();
+        replay.seed = data.readLong();
+        GameConfig config = replay.config;
+        config.setScreenSize(data.readInt(), data.readInt());
+        config.setTickRate(data.readInt());
+        config.setPipeCount(data.readInt());
+        config.setPipeSpacing(data.readInt());
+        config.setPipeGap(data.readInt());
+        config.setPipeWidth(data.readInt());
+        config.setPipeMargin(data.readInt());
+        config.setPipeSpeed(data.readFloat());
+        config.setGravity(data.readFloat());
+        config.setJumpVelocity(data.readFloat());
+        config.setIconSize(data.readInt());
+        config.setIconStart(data.readFloat(), data.readFloat());
+        if (version >= 2 && data.readBoolean()) {
+            replay.setCollisionMasks(CollisionMask.read(data), CollisionMask.read(data), CollisionMask.read(data));
+        }
+
+        int count = readVarInt(data);
+        replay.jumpTicks = new int[Math.max(1, count)];
+        int tick = 0;
+        for (int i = 0; i < count; i++) {
+            tick += readVarInt(data);
+            replay.jumpTicks[i] = tick;
+        }
+        replay.jumpCount = count;
+        replay.finalTick = data.readLong();
+        replay.finalPoints = data.readInt();
+        replay.finalChecksum = data.readLong();
+        return replay;
+    }
+
+    /**
+     * Writes a non-negative int in 7-bit groups, low group first.
+     *
+     * @param data Stream to write to
+     * @param value Value to write
+     * @throws IOException If writing fails
+     */
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            data.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data.writeByte(value);
+    }
+
+    /**
+     * Reads an int written by {@link #writeVarInt}.
+     *
+     * @param data Stream to read from
+     * @return The value
+     * @throws IOException If reading fails or the value is malformed
+     */
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) throw new IOException("Negative length in replay");
+                return value;
+            }
+        }
+        throw new IOException("Malformed replay");
+    }
+}
@@ -0,0 +1,93 @@
+package edu.commonwealthu.finalproject.engine;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Re-simulates recorded games without rendering or real time, as fast as the
+ * world can step. Because the world is deterministic, a replay played back
+ * with its own config, seed and collision masks ends on the same tick with the same score and
+ * state checksum as the original game.
+ *
+ * Run from the command line with replay files as arguments to check each one
+ * and report how fast it was re-simulated.
+ *
+ * @author Jacob Leonardo
+ */
+public final class ReplayPlayer {
+    private static final long UNFINISHED_TAIL_TICKS = 60 * 60; // how long to play past the last jump
+
+    private ReplayPlayer() {
+    }
+
+    /**
+     * Plays a replay to its end.
+     *
+     * @param replay Replay to play
+     * @return The world in its final state
+     */
+    public static GameWorld play(Replay replay) {
+        GameWorld world = new GameWorld(new GameConfig().copyFrom(replay.getConfig()), replay.getSeed());
+        world.setCollisionMasks(replay.getIconMask(), replay.getTopPipeMask(), replay.getBottomPipeMask());
+        long lastTick = replay.isFinished() ? replay.getFinalTick()
+                : (replay.getJumpCount() > 0 ? replay.getJumpTick(replay.getJumpCount() - 1) : 0)
+                + UNFINISHED_TAIL_TICKS;
+
+        int nextJump = 0;
+        while (!world.isGameOver() && world.getTick() < lastTick) {
+            if (nextJump < replay.getJumpCount() && replay.getJumpTick(nextJump) == world.getTick()) {
+                world.jump();
+                nextJump++;
+            }
+            world.step();
+        }
+        return world;
+    }
+
+    /**
+     * Plays a finished replay and compares the outcome with the recording.
+     *
+     * @param replay Replay to check
+     * @return Whether the re-simulation ended on the same tick, score and state
+     */
+    public static boolean verify(Replay replay) {
+        if (!replay.isFinished()) return false;
+        GameWorld world = play(replay);
+        return world.isGameOver()
+                && world.getTick() == replay.getFinalTick()
+                && world.getPoints() == replay.getFinalPoints()
+                && world.getStateChecksum() == replay.getFinalChecksum();
+    }
+
+    /**
+     * Verifies the replay files given as arguments and prints the result and
+     * simulation speed of each.
+     *
+     * @param args Paths of replay files
+     * @throws IOException If a file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayPlayer <replay file>...");
+            System.exit(2);
+        }
+        boolean allMatch = true;
+        for (String path : args) {
+            Replay replay;
+            try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+                replay = Replay.read(in);
+            }
+            long start = System.nanoTime();
+            boolean match = verify(replay);
+            long elapsed = Math.max(1, System.nanoTime() - start);
+            long ticks = Math.max(0, replay.getFinalTick());
+            System.out.printf("%s: %s, %d ticks, %d points, %.0f ticks/s (%.0fx real time)%n",
+                    path, match ? "OK" : "MISMATCH", ticks, replay.getFinalPoints(),
+                    ticks * 1e9 / elapsed, ticks * 1e9 / elapsed / replay.getConfig().getTickRate());
+            allMatch &= match;
+        }
+        System.exit(allMatch ? 0 : 1);
+    }
+}
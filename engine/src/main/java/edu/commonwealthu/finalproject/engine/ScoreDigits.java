@@ -0,0 +1,48 @@
+package edu.commonwealthu.finalproject.engine;
+
+/**
+ * Formats a score into a reusable character buffer so that showing the score
+ * never allocates a new String.
+ *
+ * @author Jacob Leonardo
+ */
+public class ScoreDigits {
+    private static final int MAX_DIGITS = 10; // enough for Integer.MAX_VALUE
+
+    private final char[] digits = new char[MAX_DIGITS];
+    private int length = 0;
+
+    /**
+     * Constructs a formatter holding the score 0.
+     */
+    public ScoreDigits() {
+        set(0);
+    }
+
+    /**
+     * Writes the decimal digits of a score into the buffer.
+     *
+     * @param score Non-negative score to format
+     */
+    public void set(int score) {
+        int value = Math.max(0, score);
+        int count = 0;
+        do {
+            count++;
+            value /= 10;
+        } while (value > 0);
+
+        value = Math.max(0, score);
+        for (int i = count - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length = count;
+    }
+
+    /** @return Buffer holding the digits; only the first {@link #length()} are valid */
+    public char[] chars() { return digits; }
+
+    /** @return Number of digits in the buffer */
+    public int length() { return length; }
+}
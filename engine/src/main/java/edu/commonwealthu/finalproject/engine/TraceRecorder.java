@@ -0,0 +1,268 @@
+package edu.commonwealthu.finalproject.engine;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Records timed sections of the game loop into a fixed-size ring buffer, so a
+ * stuttering session can be saved and opened later in a trace viewer.
+ *
+ * A section is timed with {@link #begin()} and {@link #end(int, long)}. While
+ * the recorder is disabled {@code begin()} returns 0 and {@code end} does
+ * nothing, so the calls can stay in the loop permanently. While enabled each
+ * section costs two clock reads and a few array writes; once the buffer is full
+ * the oldest sections are overwritten.
+ *
+ * The buffer can be saved in a compact binary form with {@link #writeBinary},
+ * read back with {@link #readBinary}, and exported as Chrome trace JSON with
+ * {@link #writeChromeTrace}, which Perfetto and chrome://tracing open directly.
+ *
+ * @author Jacob Leonardo
+ */
+public final class TraceRecorder {
+    public static final int INPUT = 0;
+    public static final int ICON_UPDATE = 1;
+    public static final int UPDATE_PIPES = 2;
+    public static final int CHECK_COLLISIONS = 3;
+    public static final int DRAW = 4;
+    public static final int SOUND = 5;
+    public static final int SCROLL_PIPES = 6;
+    private static final String[] SECTION_NAMES = {
+            "input", "Icon.update", "updatePipes", "checkCollisions", "draw", "sound", "scrollPipes"
+    };
+    private static final int MAGIC = 0x47445452; // "GDTR"
+    private static final int VERSION = 1;
+    private static final int MAX_THREADS = 16;
+
+    private final long[] starts;
+    private final long[] durations;
+    private final byte[] sections;
+    private final byte[] threads; // index into threadIds
+    private final int mask;
+    private final long[] threadIds = new long[MAX_THREADS];
+    private final String[] threadNames = new String[MAX_THREADS];
+    private int threadCount = 0;
+    private long written = 0;
+    private volatile boolean enabled = false;
+
+    /**
+     * @param capacity Number of sections kept, rounded up to a power of two
+     */
+    public TraceRecorder(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        starts = new long[size];
+        durations = new long[size];
+        sections = new byte[size];
+        threads = new byte[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @param enabled Whether sections are recorded
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** @return Whether sections are recorded */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a section.
+     *
+     * @return Start time to pass to {@link #end}, or 0 while disabled
+     */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Finishes timing a section started with {@link #begin()}.
+     *
+     * @param section One of the section constants, e.g. {@link #DRAW}
+     * @param startNanos Value returned by {@code begin()}
+     */
+    public void end(int section, long startNanos) {
+        if (startNanos != 0) {
+            record(section, startNanos, System.nanoTime() - startNanos, Thread.currentThread());
+        }
+    }
+
+    /**
+     * Stores one section, overwriting the oldest once the buffer is full.
+     *
+     * @param section Section constant
+     * @param startNanos Start time
+     * @param durationNanos Duration
+     * @param thread Thread the section ran on
+     */
+    private synchronized void record(int section, long startNanos, long durationNanos, Thread thread) {
+        int slot = (int) written & mask;
+        starts[slot] = startNanos;
+        durations[slot] = durationNanos;
+        sections[slot] = (byte) section;
+        threads[slot] = (byte) threadIndex(thread.getId(), thread.getName());
+        written++;
+    }
+
+    /**
+     * Looks up a thread, registering it the first time it is seen.
+     *
+     * @param id Thread ID
+     * @param name Thread name
+     * @return Index of the thread in the thread table
+     */
+    private int threadIndex(long id, String name) {
+        for (int i = 0; i < threadCount; i++) {
+            if (threadIds[i] == id) return i;
+        }
+        if (threadCount == MAX_THREADS) return MAX_THREADS - 1;
+        threadIds[threadCount] = id;
+        threadNames[threadCount] = name;
+        return threadCount++;
+    }
+
+    /** @return Number of sections currently held */
+    public synchronized int size() {
+        return (int) Math.min(written, starts.length);
+    }
+
+    /**
+     * Drops every recorded section.
+     */
+    public synchronized void clear() {
+        written = 0;
+        threadCount = 0;
+    }
+
+    /**
+     * @return Slot of the oldest held section
+     */
+    private int oldestSlot() {
+        return written <= starts.length ? 0 : (int) written & mask;
+    }
+
+    /**
+     * Saves the held sections, oldest first, in the binary trace format.
+     *
+     * @param out Stream to write to; not closed
+     * @throws IOException If writing fails
+     */
+    public synchronized void writeBinary(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            data.writeLong(threadIds[i]);
+            data.writeUTF(threadNames[i]);
+        }
+        int count = size();
+        data.writeInt(count);
+        for (int i = 0, slot = oldestSlot(); i < count; i++, slot = (slot + 1) & mask) {
+            data.writeByte(sections[slot]);
+            data.writeByte(threads[slot]);
+            data.writeLong(starts[slot]);
+            data.writeLong(durations[slot]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Loads a trace saved with {@link #writeBinary}.
+     *
+     * @param in Stream to read from; not closed
+     * @return A disabled recorder holding the saved sections
+     * @throws IOException If reading fails or the data is not a trace or is corrupt
+     */
+    public static TraceRecorder readBinary(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Not a trace file");
+        }
+        int threadCount = data.readInt();
+        if (threadCount < 0 || threadCount > MAX_THREADS) throw new IOException("Bad thread count");
+        long[] ids = new long[threadCount];
+        String[] names = new String[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            ids[i] = data.readLong();
+            names[i] = data.readUTF();
+        }
+        int count = data.readInt();
+        if (count < 0) throw new IOException("Bad section count");
+
+        TraceRecorder trace = new TraceRecorder(count);
+        synchronized (trace) {
+            for (int i = 0; i < threadCount; i++) {
+                trace.threadIndex(ids[i], names[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                trace.sections[i] = data.readByte();
+                byte thread = data.readByte();
+                if (thread < 0 || thread >= trace.threadCount) throw new IOException("Bad thread index");
+                trace.threads[i] = thread;
+                trace.starts[i] = data.readLong();
+                trace.durations[i] = data.readLong();
+            }
+            trace.written = count;
+        }
+        return trace;
+    }
+
+    /**
+     * Exports the held sections as Chrome trace event JSON, with timestamps in
+     * microseconds relative to the earliest section.
+     *
+     * @param out Writer to write to; not closed
+     * @throws IOException If writing fails
+     */
+    public synchronized void writeChromeTrace(Writer out) throws IOException {
+        int count = size();
+        long origin = Long.MAX_VALUE;
+        for (int i = 0, slot = oldestSlot(); i < count; i++, slot = (slot + 1) & mask) {
+            origin = Math.min(origin, starts[slot]);
+        }
+
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        for (int i = 0; i < threadCount; i++) {
+            if (!first) out.write(',');
+            first = false;
+            out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + threadIds[i]
+                    + ",\"args\":{\"name\":\"" + escape(threadNames[i]) + "\"}}");
+        }
+        for (int i = 0, slot = oldestSlot(); i < count; i++, slot = (slot + 1) & mask) {
+            if (!first) out.write(',');
+            first = false;
+            int section = sections[slot];
+            String name = section >= 0 && section < SECTION_NAMES.length ? SECTION_NAMES[section] : "section" + section;
+            out.write("\n{\"name\":\"" + name + "\",\"ph\":\"X\",\"pid\":1,\"tid\":" + threadIds[threads[slot]]
+                    + ",\"ts\":" + micros(starts[slot] - origin) + ",\"dur\":" + micros(durations[slot]) + "}");
+        }
+        out.write("]}\n");
+        out.flush();
+    }
+
+    /**
+     * @param nanos Time in nanoseconds
+     * @return The time in microseconds with three decimals
+     */
+    private static String micros(long nanos) {
+        long frac = Math.abs(nanos % 1000);
+        return nanos / 1000 + "." + (frac < 10 ? "00" : frac < 100 ? "0" : "") + frac;
+    }
+
+    /**
+     * @param text Text to embed in a JSON string
+     * @return The text with quotes and backslashes escaped
+     */
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,89 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Verifies that a game tick allocates nothing once the game is warmed up, so
+ * the frame loop never feeds the garbage collector.
+ */
+public class AllocationTest {
+    // Long enough for the JIT to finish compiling the tick, which briefly allocates.
+    private static final int WARMUP_TICKS = 500_000;
+    private static final int MEASURED_TICKS = 200_000;
+    // Background compilation can still allocate a few bytes on this thread, so a
+    // couple of windows are tried. A real per-tick allocation shows in every window.
+    private static final int MEASURED_WINDOWS = 5;
+
+    private int pointsSeen = 0;
+    private int gamesOver = 0;
+
+    /**
+     * Runs ticks with a simple bot that jumps when it drops below the next gap,
+     * restarting after every crash so resets are measured too.
+     */
+    private void run(GameWorld world, ScoreDigits digits, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (world.isGameOver()) {
+                world.reset(i);
+            }
+            Icon icon = world.getIcon();
+            Pipe next = world.getPipe(0);
+            for (int p = 1; p < world.getPipeCount(); p++) {
+                Pipe candidate = world.getPipe(p);
+                if (candidate.getX() + candidate.getWidth() >= icon.getX()
+                        && (next.getX() + next.getWidth() < icon.getX() || candidate.getX() < next.getX())) {
+                    next = candidate;
+                }
+            }
+            if (icon.getY() + icon.getHeight() > next.getGapBottom() - 40 && icon.getVelocity() > 0) {
+                world.jump();
+            }
+            world.step();
+            digits.set(world.getPoints());
+        }
+    }
+
+    @Test
+    public void steadyStateTicksDoNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        GameWorld world = new GameWorld(new GameConfig(), 99L);
+        ScoreDigits digits = new ScoreDigits();
+        world.setListener(new GameWorld.Listener() {
+            @Override
+            public void onPointScored(int points) {
+                pointsSeen++;
+            }
+
+            @Override
+            public void onGameOver(int points) {
+                gamesOver++;
+            }
+        });
+
+        long threadId = Thread.currentThread().getId();
+        run(world, digits, WARMUP_TICKS);
+        threads.getThreadAllocatedBytes(threadId); // warm up the measurement itself
+
+        long allocated = Long.MAX_VALUE;
+        for (int window = 0; window < MEASURED_WINDOWS && allocated != 0; window++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            run(world, digits, MEASURED_TICKS);
+            long after = threads.getThreadAllocatedBytes(threadId);
+            allocated = Math.min(allocated, after - before);
+        }
+
+        assertTrue("bot should score points", pointsSeen > 0);
+        assertTrue("bot should crash at least once", gamesOver > 0);
+        assertEquals("bytes allocated over " + MEASURED_TICKS + " ticks", 0L, allocated);
+    }
+}
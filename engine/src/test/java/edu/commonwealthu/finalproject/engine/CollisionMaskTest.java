@@ -0,0 +1,112 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for pixel collision masks and their use as the world's narrow phase.
+ */
+public class CollisionMaskTest {
+
+    /**
+     * @param size Width and height of the mask
+     * @return Mask of a filled circle touching all four edges
+     */
+    private static CollisionMask circle(int size) {
+        int[] argb = new int[size * size];
+        float r = size / 2f;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                float dx = x + 0.5f - r, dy = y + 0.5f - r;
+                if (dx * dx + dy * dy <= r * r) argb[y * size + x] = 0xFF000000;
+            }
+        }
+        return CollisionMask.fromAlpha(argb, size, size, 0);
+    }
+
+    /**
+     * @param width Width of the mask
+     * @param height Height of the mask
+     * @return Mask with every pixel solid
+     */
+    private static CollisionMask solid(int width, int height) {
+        int[] argb = new int[width * height];
+        java.util.Arrays.fill(argb, 0xFF000000);
+        return CollisionMask.fromAlpha(argb, width, height, 0);
+    }
+
+    @Test
+    public void alphaThresholdDecidesSolidPixels() {
+        int[] argb = {0x00FFFFFF, 0x40FFFFFF, 0x80FFFFFF, 0xFF000000};
+        CollisionMask mask = CollisionMask.fromAlpha(argb, 4, 1, 0x40);
+        assertFalse(mask.isSolid(0, 0));
+        assertFalse(mask.isSolid(1, 0));
+        assertTrue(mask.isSolid(2, 0));
+        assertTrue(mask.isSolid(3, 0));
+        assertFalse(mask.isSolid(4, 0));
+    }
+
+    @Test
+    public void byteCountCoversWholeWordsPerRow() {
+        assertEquals(8 * 10, new CollisionMask(64, 10).getByteCount());
+        assertEquals(2 * 8 * 10, new CollisionMask(65, 10).getByteCount());
+    }
+
+    @Test
+    public void circleCornersDoNotCollideWithBox() {
+        CollisionMask box = solid(100, 100);
+        CollisionMask ball = circle(75);
+        // Boxes overlap by 10 px diagonally, but the circle's corner is empty.
+        assertFalse(box.overlaps(ball, 90, 90));
+        assertFalse(ball.overlaps(box, -90, -90));
+        // Overlapping edges head on does collide.
+        assertTrue(box.overlaps(ball, 90, 20));
+        assertTrue(ball.overlaps(box, -90, -20));
+        assertFalse(box.overlaps(ball, 100, 20)); // just touching
+    }
+
+    @Test
+    public void overlapMatchesPixelByPixelAcrossWordBoundaries() {
+        CollisionMask wide = circle(150); // three words per row
+        CollisionMask small = circle(40);
+        for (int offsetY = -45; offsetY <= 155; offsetY += 7) {
+            for (int offsetX = -45; offsetX <= 155; offsetX += 3) {
+                boolean expected = false;
+                for (int y = 0; y < small.getHeight() && !expected; y++) {
+                    for (int x = 0; x < small.getWidth() && !expected; x++) {
+                        expected = small.isSolid(x, y) && wide.isSolid(x + offsetX, y + offsetY);
+                    }
+                }
+                assertEquals("offset " + offsetX + "," + offsetY, expected, wide.overlaps(small, offsetX, offsetY));
+            }
+        }
+    }
+
+    @Test
+    public void worldIgnoresBoxHitOnEmptyPixels() {
+        GameConfig config = new GameConfig().setGravity(0f).setPipeSpeed(240f);
+        // Put the icon's box just over the first bottom pipe's top-left corner,
+        // then let the pipe slide under the circle's empty lower-right corner.
+        int gapBottom = new GameWorld(config, 5L).getPipe(0).getGapBottom();
+        config.setIconStart(100f, gapBottom - config.getIconSize() + 6);
+        GameWorld boxes = new GameWorld(config, 5L);
+        GameWorld masks = new GameWorld(config, 5L);
+        int pipeHeight = config.getScreenHeight();
+        masks.setCollisionMasks(circle(config.getIconSize()),
+                solid(config.getPipeWidth(), pipeHeight), solid(config.getPipeWidth(), pipeHeight));
+
+        while (!masks.isGameOver() && masks.getPipe(0).getX() > 100f + config.getIconSize() - 6) {
+            boxes.step();
+            masks.step();
+        }
+        assertTrue(boxes.isGameOver());
+        assertFalse(masks.isGameOver());
+
+        // Sliding further in reaches the solid part of the circle.
+        while (!masks.isGameOver() && masks.getPipe(0).getX() > 100f + config.getIconSize() / 2f) {
+            masks.step();
+        }
+        assertTrue(masks.isGameOver());
+    }
+}
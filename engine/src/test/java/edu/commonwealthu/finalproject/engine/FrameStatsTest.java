@@ -0,0 +1,49 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the frame time histogram.
+ */
+public class FrameStatsTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void percentilesComeFromTheHistogram() {
+        FrameStats stats = new FrameStats();
+        for (int i = 0; i < 90; i++) stats.record(16 * MS + MS / 2, MS, 2 * MS, 0);
+        for (int i = 0; i < 9; i++) stats.record(33 * MS, MS, 2 * MS, 1);
+        stats.record(500 * MS, MS, 2 * MS, 29);
+
+        assertEquals(100, stats.getFrameCount());
+        assertEquals(16 * MS + 3 * FrameStats.BUCKET_NANOS, stats.percentileNanos(0.5));
+        assertEquals(33 * MS + FrameStats.BUCKET_NANOS, stats.percentileNanos(0.95));
+        assertEquals(500 * MS, stats.percentileNanos(1.0)); // overflow reports the maximum
+        assertEquals(10, stats.getJankCount());
+        assertEquals(38, stats.getMissedVsyncs());
+        assertEquals(MS, stats.getAverageSimNanos());
+        assertEquals(2 * MS, stats.getAverageDrawNanos());
+    }
+
+    @Test
+    public void missedVsyncsRoundToNearestPeriod() {
+        long vsync = 16_666_667L;
+        assertEquals(0, FrameStats.missedVsyncs(0, vsync));
+        assertEquals(0, FrameStats.missedVsyncs(vsync + vsync / 3, vsync)); // jitter, not jank
+        assertEquals(1, FrameStats.missedVsyncs(2 * vsync - vsync / 3, vsync));
+        assertEquals(2, FrameStats.missedVsyncs(3 * vsync, vsync));
+    }
+
+    @Test
+    public void resetForgetsEverything() {
+        FrameStats stats = new FrameStats();
+        stats.record(20 * MS, MS, MS, 1);
+        stats.reset();
+        assertEquals(0, stats.getFrameCount());
+        assertEquals(0, stats.percentileNanos(0.99));
+        assertEquals(0, stats.getJankCount());
+        assertEquals(0, stats.getMaxFrameNanos());
+    }
+}
@@ -0,0 +1,168 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the headless game simulation.
+ */
+public class GameWorldTest {
+
+    /**
+     * Runs a game, jumping every {@code jumpEvery} ticks, until it ends or the tick limit is hit.
+     */
+    private static GameWorld play(long seed, int jumpEvery, int maxTicks) {
+        GameWorld world = new GameWorld(new GameConfig(), seed);
+        while (!world.isGameOver() && world.getTick() < maxTicks) {
+            if (world.getTick() % jumpEvery == 0) {
+                world.jump();
+            }
+            world.step();
+        }
+        return world;
+    }
+
+    @Test
+    public void iconFallsWithoutInput() {
+        GameWorld world = new GameWorld(new GameConfig(), 1L);
+        float startY = world.getIcon().getY();
+        world.step();
+        world.step();
+        assertTrue(world.getIcon().getY() > startY);
+    }
+
+    @Test
+    public void fallingIconHitsFloor() {
+        GameWorld world = new GameWorld(new GameConfig(), 1L);
+        for (int i = 0; i < 600 && !world.isGameOver(); i++) {
+            world.step();
+        }
+        assertTrue(world.isGameOver());
+        assertEquals(0, world.getPoints());
+    }
+
+    @Test
+    public void sameSeedAndInputReplayIdentically() {
+        GameWorld a = play(42L, 20, 5000);
+        GameWorld b = play(42L, 20, 5000);
+        assertEquals(a.getTick(), b.getTick());
+        assertEquals(a.getPoints(), b.getPoints());
+        assertEquals(a.getIcon().getY(), b.getIcon().getY(), 0f);
+    }
+
+    @Test
+    public void passingPipeScoresOnce() {
+        // A margin this large pins every gap to y = 960; the icon floats inside it.
+        GameConfig config = new GameConfig().setGravity(0f).setPipeMargin(535).setIconStart(100f, 1000f);
+        GameWorld world = new GameWorld(config, 7L);
+        int[] scored = new int[1];
+        world.setListener(new GameWorld.Listener() {
+            @Override
+            public void onPointScored(int points) {
+                scored[0] = points;
+            }
+
+            @Override
+            public void onGameOver(int points) {
+            }
+        });
+
+        // The first pipe starts at the right edge; give it time to pass the icon.
+        float distance = config.getScreenWidth() + config.getPipeWidth() - config.getIconStartX();
+        int ticks = (int) Math.ceil(distance / config.getPipeSpeed() * config.getTickRate()) + 1;
+        for (int i = 0; i < ticks; i++) {
+            world.step();
+        }
+        assertFalse(world.isGameOver());
+        assertEquals(1, world.getPoints());
+        assertEquals(1, scored[0]);
+    }
+
+    @Test
+    public void scaleKeepsScreenAndTickRate() {
+        GameConfig config = new GameConfig().setScreenSize(1080, 2400).scale(3f);
+        GameConfig defaults = new GameConfig();
+        assertEquals(3 * defaults.getIconSize(), config.getIconSize());
+        assertEquals(3 * defaults.getPipeGap(), config.getPipeGap());
+        assertEquals(3 * defaults.getPipeSpeed(), config.getPipeSpeed(), 1e-3f);
+        assertEquals(3 * defaults.getJumpVelocity(), config.getJumpVelocity(), 1e-3f);
+        assertEquals(3 * defaults.getIconStartY(), config.getIconStartY(), 1e-3f);
+        assertEquals(2400, config.getScreenHeight());
+        assertEquals(defaults.getTickRate(), config.getTickRate());
+    }
+
+    @Test
+    public void gapsFitOnScaledShortScreen() {
+        // A 800 dp tall phone at density 3 is too short to keep the top pipe
+        // as tall as the gap, but every gap must still be on screen.
+        GameConfig config = new GameConfig().scale(3f).setScreenSize(1080, 2400);
+        GameWorld world = new GameWorld(config, 8L);
+        for (int i = 0; i < 2000 && !world.isGameOver(); i++) {
+            if (world.getIcon().getVelocity() > 0 && world.getIcon().getY() > 1200) world.jump();
+            world.step();
+            for (int p = 0; p < world.getPipeCount(); p++) {
+                Pipe pipe = world.getPipe(p);
+                assertTrue(pipe.getGapTop() >= config.getPipeMargin());
+                assertTrue(pipe.getGapBottom() <= config.getScreenHeight() - config.getPipeMargin());
+            }
+        }
+    }
+
+    /**
+     * Plays eight seconds with a jump at the start of every second, sampling
+     * the icon's height every 1/30 s.
+     */
+    private static GameWorld playScripted(int tickRate, float[] heights) {
+        // A margin this large pins every gap to y = 960; jumping once a second
+        // keeps the icon between y = 1025 and 1250, inside the gap.
+        GameConfig config = new GameConfig().setTickRate(tickRate).setPipeMargin(535).setIconStart(100f, 1250f);
+        GameWorld world = new GameWorld(config, 11L);
+        int ticksPerSample = tickRate / 30;
+        for (int tick = 0; tick < 8 * tickRate; tick++) {
+            if (tick % tickRate == 0) world.jump();
+            world.step();
+            if ((tick + 1) % ticksPerSample == 0) heights[(tick + 1) / ticksPerSample - 1] = world.getIcon().getY();
+        }
+        return world;
+    }
+
+    @Test
+    public void sameInputPlaysSameAtAnyTickRate() {
+        float[] at30 = new float[8 * 30], at60 = new float[8 * 30], at120 = new float[8 * 30];
+        GameWorld slow = playScripted(30, at30);
+        GameWorld normal = playScripted(60, at60);
+        GameWorld fast = playScripted(120, at120);
+
+        assertFalse(normal.isGameOver());
+        assertTrue(normal.getPoints() > 0);
+        assertFalse(slow.isGameOver());
+        assertFalse(fast.isGameOver());
+        assertEquals(normal.getPoints(), slow.getPoints());
+        assertEquals(normal.getPoints(), fast.getPoints());
+        for (int i = 0; i < at60.length; i++) {
+            assertEquals(at60[i], at30[i], 1f);
+            assertEquals(at60[i], at120[i], 1f);
+        }
+    }
+
+    @Test
+    public void advanceRunsWholeStepsAndKeepsRemainder() {
+        GameConfig config = new GameConfig().setTickRate(60);
+        GameWorld world = new GameWorld(config, 3L);
+        world.advance(2.5f / 60f);
+        assertEquals(2, world.getTick());
+        assertEquals(0.5f, world.getInterpolation(), 1e-3f);
+    }
+
+    @Test
+    public void resetRestartsGame() {
+        GameWorld world = play(5L, 1000, 5000);
+        assertTrue(world.isGameOver());
+        world.reset(5L);
+        assertFalse(world.isGameOver());
+        assertEquals(0, world.getTick());
+        assertEquals(0, world.getPoints());
+        assertEquals(new GameConfig().getIconStartY(), world.getIcon().getY(), 0f);
+    }
+}
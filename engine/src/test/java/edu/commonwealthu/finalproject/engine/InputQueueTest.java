@@ -0,0 +1,60 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the timestamped input queue and how the world consumes it.
+ */
+public class InputQueueTest {
+
+    @Test
+    public void keepsInputsInOrderAndRejectsWhenFull() {
+        InputQueue queue = new InputQueue(3);
+        assertEquals(4, queue.capacity());
+        for (long t = 1; t <= 4; t++) {
+            assertTrue(queue.offer(t));
+        }
+        assertFalse(queue.offer(5));
+
+        for (long t = 1; t <= 4; t++) {
+            assertFalse(queue.isEmpty());
+            assertEquals(t, queue.peek());
+            assertEquals(t, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+        assertTrue(queue.offer(6)); // wraps around
+        assertEquals(6, queue.poll());
+    }
+
+    @Test
+    public void inputIsAppliedAtTheTickCoveringItsTimestamp() {
+        GameWorld world = new GameWorld(new GameConfig(), 1L);
+        long stepNanos = 1_000_000_000L / world.getConfig().getTickRate();
+        long start = 1_000_000_000L;
+
+        // Pressed during the third step of a four-step frame.
+        world.getInput().offer(start + 2 * stepNanos + stepNanos / 2);
+        world.advance(4 * stepNanos / 1e9f + 1e-6f, start + 4 * stepNanos);
+
+        assertEquals(4, world.getTick());
+        assertEquals(2, world.getLastInputTick());
+        assertTrue(world.getInput().isEmpty());
+    }
+
+    @Test
+    public void futureInputWaitsForLaterFrame() {
+        GameWorld world = new GameWorld(new GameConfig(), 1L);
+        long stepNanos = 1_000_000_000L / world.getConfig().getTickRate();
+        long start = 1_000_000_000L;
+
+        world.getInput().offer(start + 2 * stepNanos + stepNanos / 2);
+        world.advance(stepNanos / 1e9f + 1e-6f, start + stepNanos);
+        assertEquals(-1, world.getLastInputTick());
+        assertFalse(world.getInput().isEmpty());
+
+        world.advance(3 * stepNanos / 1e9f, start + 4 * stepNanos);
+        assertEquals(2, world.getLastInputTick());
+    }
+}
@@ -0,0 +1,42 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the parallel simulation harness.
+ */
+public class MonteCarloTest {
+
+    @Test
+    public void resultsDoNotDependOnParallelism() {
+        MonteCarlo simulation = new MonteCarlo(new GameConfig(), BotPolicy.gapTracker(60, 40), 20_000);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            MonteCarlo.Result a = simulation.run(1000, 7L, single);
+            MonteCarlo.Result b = simulation.run(1000, 7L, several);
+            assertEquals(1000, a.getGames());
+            assertEquals(a.getTotalTicks(), b.getTotalTicks());
+            assertEquals(a.getMeanPoints(), b.getMeanPoints(), 0.0);
+            assertEquals(a.getPointsPercentile(0.9), b.getPointsPercentile(0.9));
+            assertEquals(a.getSurvived(), b.getSurvived());
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void aimingBotOutscoresRandomTapping() {
+        GameConfig config = new GameConfig();
+        MonteCarlo.Result tracker = new MonteCarlo(config, BotPolicy.gapTracker(60, 20), 20_000).run(500, 1L);
+        MonteCarlo.Result random = new MonteCarlo(config, BotPolicy.random(2f), 20_000).run(500, 1L);
+        assertTrue(tracker.getMeanPoints() > random.getMeanPoints());
+        assertEquals(1.0, tracker.getSurvivalRate(0), 0.0);
+        assertTrue(tracker.getTicksPerSecondPerCore() > 0);
+    }
+}
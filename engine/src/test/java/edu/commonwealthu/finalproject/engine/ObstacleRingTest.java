@@ -0,0 +1,78 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the obstacle ring buffer.
+ */
+public class ObstacleRingTest {
+    private int nextGap = 500;
+
+    private final ObstacleRing.GapSource gaps = () -> nextGap++;
+
+    private static void assertSortedAndSpaced(ObstacleRing ring, GameConfig config) {
+        for (int i = 1; i < ring.size(); i++) {
+            assertEquals(config.getPipeSpacing(),
+                    ring.get(i).getX() - ring.get(i - 1).getX(), 1e-2f);
+        }
+    }
+
+    @Test
+    public void layoutStartsAtGivenPosition() {
+        GameConfig config = new GameConfig();
+        ObstacleRing ring = new ObstacleRing(config);
+        ring.reset(4, 1000f, gaps);
+        assertEquals(4, ring.size());
+        assertEquals(1000f, ring.get(0).getX(), 0f);
+        assertSortedAndSpaced(ring, config);
+        assertEquals(1000f + 4 * config.getPipeSpacing(), ring.getNextSpawnX(), 0f);
+    }
+
+    @Test
+    public void recycledPipeMovesBehindTail() {
+        GameConfig config = new GameConfig();
+        ObstacleRing ring = new ObstacleRing(config);
+        ring.reset(3, 0f, gaps);
+        Pipe first = ring.get(0);
+        float expectedX = ring.getNextSpawnX();
+
+        // Scroll just far enough for the first pipe to leave the screen.
+        float distance = config.getPipeWidth() + 1f;
+        ring.advance(distance / config.getPipeSpeed(), gaps);
+
+        assertSame(first, ring.get(2));
+        assertEquals(expectedX - distance, first.getX(), 1e-2f);
+        assertFalse(first.hasPassed());
+        assertSortedAndSpaced(ring, config);
+    }
+
+    @Test
+    public void staysSortedOverLongRuns() {
+        GameConfig config = new GameConfig();
+        ObstacleRing ring = new ObstacleRing(config);
+        ring.reset(200, config.getScreenWidth(), gaps);
+        float dt = config.getStepSeconds();
+        // Long enough to rebase the world positions several times.
+        for (int i = 0; i < 60 * 60 * 20; i++) {
+            ring.advance(dt, gaps);
+            assertTrue(ring.get(0).getX() + config.getPipeWidth() >= 0);
+        }
+        assertTrue(ring.getScroll() < 65536f);
+        assertSortedAndSpaced(ring, config);
+    }
+
+    @Test
+    public void resetReusesPipes() {
+        GameConfig config = new GameConfig();
+        ObstacleRing ring = new ObstacleRing(config);
+        ring.reset(5, 0f, gaps);
+        Pipe pipe = ring.get(3);
+        ring.reset(5, 0f, gaps);
+        assertSame(pipe, ring.get(3));
+        ring.reset(2, 0f, gaps);
+        assertEquals(2, ring.size());
+        assertEquals(config.getPipeSpacing(), ring.get(1).getX(), 0f);
+    }
+}
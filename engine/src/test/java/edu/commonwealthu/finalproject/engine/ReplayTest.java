@@ -0,0 +1,129 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for replay recording and headless playback.
+ */
+public class ReplayTest {
+
+    /**
+     * Plays a recorded game with a bot that jumps whenever it falls below the
+     * middle of the screen, with a little seeded jitter.
+     */
+    private static Replay record(long seed) {
+        GameWorld world = new GameWorld(new GameConfig().setTickRate(90), seed);
+        Replay replay = new Replay();
+        world.setReplayRecorder(replay);
+        Random jitter = new Random(seed);
+        while (!world.isGameOver() && world.getTick() < 100_000) {
+            Icon icon = world.getIcon();
+            if (icon.getY() > 900 + jitter.nextInt(200) && icon.getVelocity() > 0) {
+                world.jump();
+            }
+            world.step();
+        }
+        assertTrue(world.isGameOver());
+        return replay;
+    }
+
+    @Test
+    public void recordedGameReplaysExactly() throws Exception {
+        Replay original = record(11L);
+        assertTrue(original.isFinished());
+        assertTrue(original.getJumpCount() > 0);
+
+        Replay loaded = Replay.read(new ByteArrayInputStream(original.toByteArray()));
+        assertEquals(original.getSeed(), loaded.getSeed());
+        assertEquals(90, loaded.getConfig().getTickRate());
+        assertEquals(original.getJumpCount(), loaded.getJumpCount());
+        assertEquals(original.getJumpTick(original.getJumpCount() - 1),
+                loaded.getJumpTick(loaded.getJumpCount() - 1));
+        assertTrue(ReplayPlayer.verify(loaded));
+    }
+
+    @Test
+    public void tamperedReplayFailsVerification() throws Exception {
+        byte[] bytes = record(12L).toByteArray();
+        bytes[15] ^= 1; // last byte of the seed, after the 8-byte header
+        Replay tampered = Replay.read(new ByteArrayInputStream(bytes));
+        assertEquals(13L, tampered.getSeed());
+        assertFalse(ReplayPlayer.verify(tampered));
+    }
+
+    @Test
+    public void gameWithCollisionMasksReplaysExactly() throws Exception {
+        // The icon's box starts over a bottom pipe's corner; only its empty
+        // pixel corner overlaps, so the game outlives a box-only one.
+        GameConfig config = new GameConfig().setGravity(0f).setPipeSpeed(240f);
+        int gapBottom = new GameWorld(config, 5L).getPipe(0).getGapBottom();
+        config.setIconStart(100f, gapBottom - config.getIconSize() + 6);
+        GameWorld world = new GameWorld(config, 5L);
+        Replay replay = new Replay();
+        world.setReplayRecorder(replay);
+        int pipeHeight = config.getScreenHeight();
+        world.setCollisionMasks(circle(config.getIconSize()),
+                solid(config.getPipeWidth(), pipeHeight), solid(config.getPipeWidth(), pipeHeight));
+        while (!world.isGameOver()) {
+            world.step();
+        }
+
+        Replay loaded = Replay.read(new ByteArrayInputStream(replay.toByteArray()));
+        assertTrue(loaded.hasCollisionMasks());
+        assertEquals(pipeHeight, loaded.getBottomPipeMask().getHeight());
+        assertTrue(ReplayPlayer.verify(loaded));
+
+        GameWorld boxes = new GameWorld(new GameConfig().copyFrom(config), 5L);
+        while (!boxes.isGameOver()) {
+            boxes.step();
+        }
+        assertTrue(boxes.getTick() < loaded.getFinalTick()); // masks changed the outcome
+    }
+
+    /**
+     * @param size Width and height of the mask
+     * @return Mask of a filled circle touching all four edges
+     */
+    private static CollisionMask circle(int size) {
+        int[] argb = new int[size * size];
+        float r = size / 2f;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                float dx = x + 0.5f - r, dy = y + 0.5f - r;
+                if (dx * dx + dy * dy <= r * r) argb[y * size + x] = 0xFF000000;
+            }
+        }
+        return CollisionMask.fromAlpha(argb, size, size, 0);
+    }
+
+    /**
+     * @param width Width of the mask
+     * @param height Height of the mask
+     * @return Mask with every pixel solid
+     */
+    private static CollisionMask solid(int width, int height) {
+        int[] argb = new int[width * height];
+        java.util.Arrays.fill(argb, 0xFF000000);
+        return CollisionMask.fromAlpha(argb, width, height, 0);
+    }
+
+    @Test
+    public void resetStartsANewRecording() {
+        GameWorld world = new GameWorld(new GameConfig(), 5L);
+        Replay replay = new Replay();
+        world.setReplayRecorder(replay);
+        world.jump();
+        world.step();
+        assertEquals(1, replay.getJumpCount());
+
+        world.reset(6L);
+        assertEquals(0, replay.getJumpCount());
+        assertEquals(6L, replay.getSeed());
+        assertFalse(replay.isFinished());
+    }
+}
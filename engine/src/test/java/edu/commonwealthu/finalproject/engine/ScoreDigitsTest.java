@@ -0,0 +1,35 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the allocation-free score formatter.
+ */
+public class ScoreDigitsTest {
+
+    private static String text(ScoreDigits digits) {
+        return new String(digits.chars(), 0, digits.length());
+    }
+
+    @Test
+    public void formatsScores() {
+        ScoreDigits digits = new ScoreDigits();
+        assertEquals("0", text(digits));
+        digits.set(7);
+        assertEquals("7", text(digits));
+        digits.set(1050);
+        assertEquals("1050", text(digits));
+        digits.set(Integer.MAX_VALUE);
+        assertEquals(String.valueOf(Integer.MAX_VALUE), text(digits));
+    }
+
+    @Test
+    public void shorterScoreOverwritesLonger() {
+        ScoreDigits digits = new ScoreDigits();
+        digits.set(12345);
+        digits.set(9);
+        assertEquals("9", text(digits));
+    }
+}
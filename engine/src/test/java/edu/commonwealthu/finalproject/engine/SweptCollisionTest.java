@@ -0,0 +1,67 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for swept collision detection and the sorted broad phase.
+ */
+public class SweptCollisionTest {
+
+    @Test
+    public void fastPipeCannotTunnelThroughIcon() {
+        // 400 px per step: a pipe jumps from x = 280 to x = -120, never
+        // overlapping the icon (100..175) at the end of a step.
+        GameConfig config = new GameConfig().setTickRate(5).setPipeSpeed(2000f).setGravity(0f)
+                .setIconStart(100f, 100f);
+        GameWorld world = new GameWorld(config, 3L);
+        world.step();
+        world.step();
+        assertFalse(world.isGameOver());
+        assertEquals(280f, world.getPipe(0).getX(), 1e-3f);
+
+        world.step();
+        assertTrue(world.isGameOver());
+        assertEquals(0, world.getPoints()); // crashed, so the pipe does not score
+    }
+
+    @Test
+    public void sweptTestMatchesDiscreteTestWithoutMotion() {
+        GameConfig config = new GameConfig();
+        ObstacleRing ring = new ObstacleRing(config);
+        ring.reset(1, 100f, () -> 800);
+        Pipe pipe = ring.get(0);
+
+        assertTrue(pipe.sweptIntersects(90, 700, 165, 775, 0, 0)); // top pipe
+        assertTrue(pipe.sweptIntersects(90, 1200, 165, 1275, 0, 0)); // bottom pipe
+        assertFalse(pipe.sweptIntersects(90, 900, 165, 975, 0, 0)); // inside the gap
+        assertFalse(pipe.sweptIntersects(0, 700, 100, 775, 0, 0)); // touching edge only
+    }
+
+    @Test
+    public void boxFallingThroughGapEdgeIsCaught() {
+        GameConfig config = new GameConfig();
+        ObstacleRing ring = new ObstacleRing(config);
+        ring.reset(1, 100f, () -> 800);
+        Pipe pipe = ring.get(0);
+        // Starts inside the gap, ends below the pipe's bottom edge horizontally
+        // past it; the move crosses the bottom pipe's corner mid-step.
+        float gapBottom = pipe.getGapBottom();
+        assertTrue(pipe.sweptIntersects(180, gapBottom + 10, 255, gapBottom + 85, 120, 100));
+        // Same end position without vertical motion stays clear of the pipe.
+        assertFalse(pipe.sweptIntersects(180, 900, 255, 975, 120, 0));
+    }
+
+    @Test
+    public void broadPhaseFindsFirstPipeReachingPastPosition() {
+        GameConfig config = new GameConfig();
+        ObstacleRing ring = new ObstacleRing(config);
+        ring.reset(10, 0f, () -> 800); // pipes at 0, 400, ..., 3600, width 75
+        assertEquals(0, ring.firstEndingAfter(-1f));
+        assertEquals(0, ring.firstEndingAfter(74f));
+        assertEquals(1, ring.firstEndingAfter(75f));
+        assertEquals(3, ring.firstEndingAfter(1000f));
+        assertEquals(10, ring.firstEndingAfter(5000f));
+    }
+}
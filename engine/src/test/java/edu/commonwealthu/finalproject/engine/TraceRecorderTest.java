@@ -0,0 +1,92 @@
+package edu.commonwealthu.finalproject.engine;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the game loop trace recorder.
+ */
+public class TraceRecorderTest {
+
+    @Test
+    public void recordsNothingWhileDisabled() {
+        TraceRecorder tracer = new TraceRecorder(16);
+        long start = tracer.begin();
+        tracer.end(TraceRecorder.DRAW, start);
+        assertEquals(0, start);
+        assertEquals(0, tracer.size());
+    }
+
+    @Test
+    public void keepsOnlyTheNewestSections() {
+        TraceRecorder tracer = new TraceRecorder(8);
+        tracer.setEnabled(true);
+        for (int i = 0; i < 20; i++) {
+            tracer.end(TraceRecorder.DRAW, tracer.begin());
+        }
+        assertEquals(8, tracer.size());
+    }
+
+    @Test
+    public void tracedWorldRoundTripsThroughBinaryAndExportsJson() throws Exception {
+        TraceRecorder tracer = new TraceRecorder(1024);
+        tracer.setEnabled(true);
+        GameWorld world = new GameWorld(new GameConfig(), 3L);
+        world.setTracer(tracer);
+        for (int i = 0; i < 10; i++) {
+            world.step();
+        }
+        assertEquals(40, tracer.size()); // icon, scroll, collisions and pipe update per step
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        tracer.writeBinary(bytes);
+        TraceRecorder loaded = TraceRecorder.readBinary(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(40, loaded.size());
+
+        StringWriter original = new StringWriter();
+        StringWriter reloaded = new StringWriter();
+        tracer.writeChromeTrace(original);
+        loaded.writeChromeTrace(reloaded);
+        assertEquals(original.toString(), reloaded.toString());
+        assertTrue(original.toString().startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(original.toString().contains("\"name\":\"Icon.update\",\"ph\":\"X\""));
+        assertTrue(original.toString().contains("\"name\":\"thread_name\""));
+        assertEquals(10, count(original.toString(), "\"name\":\"updatePipes\""));
+        assertEquals(10, count(original.toString(), "\"name\":\"scrollPipes\""));
+    }
+
+    @Test
+    public void corruptThreadIndexIsRejected() throws Exception {
+        TraceRecorder tracer = new TraceRecorder(8);
+        tracer.setEnabled(true);
+        tracer.end(TraceRecorder.DRAW, tracer.begin());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        tracer.writeBinary(bytes);
+        byte[] data = bytes.toByteArray();
+        data[data.length - 17] = 5; // thread byte of the only section; one thread is known
+
+        try {
+            TraceRecorder.readBinary(new ByteArrayInputStream(data));
+            fail("corrupt trace was read");
+        } catch (IOException expected) {
+            // rejected
+        }
+    }
+
+    /**
+     * @return Number of times {@code part} occurs in {@code text}
+     */
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
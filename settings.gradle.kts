@@ -21,4 +21,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "Final Project"
 include(":app")
+include(":engine")
+include(":benchmark")
  
\ No newline at end of file